@@ -0,0 +1,248 @@
+package com.targetcar.usuario.carga;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.PopulationBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+// Teste de carga com o mix de tráfego da aplicação, uma fase por cenário e em sequência:
+// cadastro, login, consulta autenticada, atualização de endereço/telefone e consulta de CEP.
+// Vazão e percentis (p50/p99) de cada requisição ficam no relatório do Gatling; ao final, a contagem de
+// comandos SQL de cada fase é lida de hibernate_statements_total em /actuator/prometheus, na porta do actuator:
+// entre uma fase e a seguinte um cenário de um único usuário lê as métricas, pelo próprio Gatling.
+//
+// Propriedades (-Dcarga.*): url, metricas-url, viacep-admin, viacep-latencia (ms), taxa (usuários/s) e duracao (s) por fase
+public class UsuarioSimulation extends Simulation {
+
+    private static final String URL = System.getProperty("carga.url", "http://localhost:8080");
+    private static final String METRICAS_URL = System.getProperty("carga.metricas-url", "http://localhost:8081");
+    private static final String VIACEP_ADMIN = System.getProperty("carga.viacep-admin", "http://localhost:8089");
+    private static final long LATENCIA_VIACEP = Long.getLong("carga.viacep-latencia", 80);
+    private static final int TAXA = Integer.getInteger("carga.taxa", 20);
+    private static final Duration DURACAO = Duration.ofSeconds(Long.getLong("carga.duracao", 60));
+
+    private static final String SENHA = "Senha@Carga123";
+    private static final List<String> FASES = List.of("cadastro", "login", "consulta", "atualizacao", "cep");
+    private static final String FIM = "fim";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    // Estado compartilhado entre as fases: usuários cadastrados e os tokens obtidos no login
+    private final List<String> cadastrados = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final List<String> autenticados = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger proximoCadastrado = new AtomicInteger();
+    private final AtomicInteger proximoAutenticado = new AtomicInteger();
+
+    // Comandos SQL acumulados no início de cada fase (e no fim da última) e número de iterações executadas em cada uma
+    private final Map<String, Long> comandosNoInicio = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> iteracoes = new ConcurrentHashMap<>();
+
+    {
+        FASES.forEach(fase -> iteracoes.put(fase, new AtomicLong()));
+    }
+
+    private final HttpProtocolBuilder protocolo = http
+            .baseUrl(URL)
+            .acceptHeader("application/json")
+            .contentTypeHeader("application/json");
+
+    private final ScenarioBuilder cadastro = scenario("cadastro")
+            .exec(contarIteracao("cadastro"))
+            .exec(session -> session.set("email", "carga-" + UUID.randomUUID() + "@teste.com"))
+            .exec(http("cadastrar usuario")
+                    .post("/usuario")
+                    .body(StringBody("""
+                            {"nome": "Usuário de Carga", "email": "#{email}", "senha": "%s",
+                             "enderecos": [{"rua": "Rua de Teste", "numero": 100, "cidade": "São Paulo",
+                                            "estado": "SP", "cep": "01310100"}],
+                             "telefones": [{"ddd": "11", "numero": "999990000"}]}
+                            """.formatted(SENHA)))
+                    .check(status().is(200)))
+            .exitHereIfFailed()
+            .exec(session -> {
+                cadastrados.add(session.getString("email"));
+                return session;
+            });
+
+    private final ScenarioBuilder login = scenario("login")
+            .exec(contarIteracao("login"))
+            .feed(ciclico(cadastrados, proximoCadastrado))
+            .exec(http("login")
+                    .post("/usuario/login")
+                    .body(StringBody("{\"email\": \"#{email}\", \"senha\": \"" + SENHA + "\"}"))
+                    .check(status().is(200), bodyString().saveAs("token")))
+            .exitHereIfFailed()
+            .exec(session -> {
+                String email = session.getString("email");
+                if (tokens.put(email, session.getString("token")) == null) {
+                    autenticados.add(email);
+                }
+                return session;
+            });
+
+    private final ScenarioBuilder consulta = scenario("consulta")
+            .exec(contarIteracao("consulta"))
+            .feed(comToken())
+            .exec(http("buscar usuario")
+                    .get("/usuario")
+                    .queryParam("email", "#{email}")
+                    .header("Authorization", "#{token}")
+                    .check(status().is(200)));
+
+    private final ScenarioBuilder atualizacao = scenario("atualizacao")
+            .exec(contarIteracao("atualizacao"))
+            .feed(comToken())
+            .exec(http("buscar usuario para atualizar")
+                    .get("/usuario")
+                    .queryParam("email", "#{email}")
+                    .header("Authorization", "#{token}")
+                    .check(status().is(200),
+                            jsonPath("$.enderecos[0].id").saveAs("enderecoId"),
+                            jsonPath("$.telefones[0].id").saveAs("telefoneId")))
+            .exitHereIfFailed()
+            .exec(http("atualizar endereco")
+                    .put("/usuario/endereco")
+                    .queryParam("id", "#{enderecoId}")
+                    .header("Authorization", "#{token}")
+                    .body(StringBody("{\"rua\": \"Rua Atualizada\", \"numero\": 200, \"complemento\": \"Casa\"}"))
+                    .check(status().is(200)))
+            .exec(http("atualizar telefone")
+                    .put("/usuario/telefone")
+                    .queryParam("id", "#{telefoneId}")
+                    .header("Authorization", "#{token}")
+                    .body(StringBody("{\"ddd\": \"21\", \"numero\": \"988880000\"}"))
+                    .check(status().is(200)));
+
+    // 1000 CEPs distintos: as primeiras consultas vão ao stub, as seguintes saem do cache
+    private final ScenarioBuilder cep = scenario("cep")
+            .exec(contarIteracao("cep"))
+            .exec(session -> session.set("cep", String.format("%08d", 1_000_000 + ThreadLocalRandom.current().nextInt(1000) * 97)))
+            .exec(http("buscar cep")
+                    .get("/usuario/endereco/#{cep}")
+                    .check(status().is(200)));
+
+    {
+        // Cada fase só começa quando a anterior termina; a leitura das métricas fica entre elas.
+        // andThen aninhado: a.andThen(b).andThen(c) iniciaria b e c juntos ao fim de a
+        List<PopulationBuilder> etapas = List.of(
+                metricas(FASES.get(0)), cadastro.injectOpen(constantUsersPerSec(TAXA).during(DURACAO)),
+                metricas(FASES.get(1)), login.injectOpen(constantUsersPerSec(TAXA).during(DURACAO)),
+                metricas(FASES.get(2)), consulta.injectOpen(constantUsersPerSec(TAXA).during(DURACAO)),
+                metricas(FASES.get(3)), atualizacao.injectOpen(constantUsersPerSec(TAXA).during(DURACAO)),
+                metricas(FASES.get(4)), cep.injectOpen(constantUsersPerSec(TAXA).during(DURACAO)),
+                metricas(FIM));
+        PopulationBuilder sequencia = etapas.get(etapas.size() - 1);
+        for (int i = etapas.size() - 2; i >= 0; i--) {
+            sequencia = etapas.get(i).andThen(sequencia);
+        }
+        setUp(sequencia)
+                .protocols(protocolo)
+                .assertions(global().failedRequests().percent().lt(1.0));
+    }
+
+    @Override
+    public void before() {
+        // Latência fixa em todas as respostas do stub do ViaCEP
+        enviar(HttpRequest.newBuilder(URI.create(VIACEP_ADMIN + "/__admin/settings"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"fixedDelay\": " + LATENCIA_VIACEP + "}"))
+                .build());
+    }
+
+    @Override
+    public void after() {
+        Map<String, Long> porFase = new LinkedHashMap<>();
+        for (int i = 0; i < FASES.size(); i++) {
+            String fase = FASES.get(i);
+            String seguinte = i + 1 < FASES.size() ? FASES.get(i + 1) : FIM;
+            if (comandosNoInicio.containsKey(fase) && comandosNoInicio.containsKey(seguinte)) {
+                porFase.put(fase, comandosNoInicio.get(seguinte) - comandosNoInicio.get(fase));
+            }
+        }
+        System.out.println("Comandos SQL por fase (hibernate_statements_total, status=prepared):");
+        porFase.forEach((fase, comandos) -> {
+            long execucoes = iteracoes.get(fase).get();
+            System.out.printf("  %-12s %8d comandos  %8d iterações  %6.2f comandos/iteração%n",
+                    fase, comandos, execucoes, execucoes == 0 ? 0.0 : (double) comandos / execucoes);
+        });
+    }
+
+    // Um único usuário lê /actuator/prometheus e guarda o total de comandos SQL executados até ali.
+    // As fases rodam em sequência, então a diferença entre o início de uma fase e o da seguinte é dela.
+    // A requisição passa pelo Gatling (sem chamada bloqueante dentro das funções de sessão) e o Accept
+    // é sobrescrito: o endpoint não responde application/json
+    private PopulationBuilder metricas(String fase) {
+        return scenario("metricas " + fase)
+                .exec(http("metricas")
+                        .get(METRICAS_URL + "/actuator/prometheus")
+                        .header("Accept", "text/plain")
+                        .check(status().is(200), bodyString().saveAs("metricas")))
+                .exec(session -> {
+                    comandosNoInicio.put(fase, comandosSql(session.getString("metricas")));
+                    return session;
+                })
+                .injectOpen(atOnceUsers(1));
+    }
+
+    private ChainBuilder contarIteracao(String fase) {
+        AtomicLong contador = iteracoes.get(fase);
+        return exec(session -> {
+            contador.incrementAndGet();
+            return session;
+        });
+    }
+
+    private Iterator<Map<String, Object>> ciclico(List<String> emails, AtomicInteger indice) {
+        return Stream.generate(() -> Map.<String, Object>of("email",
+                emails.get(Math.floorMod(indice.getAndIncrement(), emails.size())))).iterator();
+    }
+
+    private Iterator<Map<String, Object>> comToken() {
+        return Stream.generate(() -> {
+            String email = autenticados.get(Math.floorMod(proximoAutenticado.getAndIncrement(), autenticados.size()));
+            return Map.<String, Object>of("email", email, "token", tokens.get(email));
+        }).iterator();
+    }
+
+    private static long comandosSql(String metricas) {
+        return metricas.lines()
+                .filter(linha -> linha.startsWith("hibernate_statements_total") && linha.contains("status=\"prepared\""))
+                .mapToLong(linha -> (long) Double.parseDouble(linha.substring(linha.lastIndexOf(' ') + 1)))
+                .sum();
+    }
+
+    private String enviar(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao acessar " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido ao acessar " + request.uri(), e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.targetcar.usuario.business;
+
+import com.targetcar.usuario.infrastructure.clients.CepNormalizador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+// Normalização do CEP recebido na URL nos formatos mais comuns: a implementação atual (CepNormalizador,
+// uma passada sem alocação) comparada com a anterior (dois replace + regex compilada a cada chamada)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ProcessarCepBenchmark {
+
+    @Param({"01310100", "01310-100", " 01310 - 100 "})
+    public String cep;
+
+    private final ViaCepService viaCepService = new ViaCepService(null, null, 1);
+
+    @Benchmark
+    public String processarCep() {
+        return viaCepService.processarCep(cep);
+    }
+
+    @Benchmark
+    public int chaveCep() {
+        return CepNormalizador.paraChave(cep);
+    }
+
+    @Benchmark
+    public String processarCepComRegex() {
+        String cepFormatado = cep.replace(" ", "").replace("-", "");
+        if (!cepFormatado.matches("\\d+") || !Objects.equals(cepFormatado.length(), 8)) {
+            throw new IllegalArgumentException("O cep contém caracteres inválidos, favor verificar");
+        }
+        return cepFormatado;
+    }
+}
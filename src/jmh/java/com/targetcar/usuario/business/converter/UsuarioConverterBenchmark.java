@@ -0,0 +1,77 @@
+package com.targetcar.usuario.business.converter;
+
+import com.targetcar.usuario.business.dto.EnderecoDTO;
+import com.targetcar.usuario.business.dto.TelefoneDTO;
+import com.targetcar.usuario.business.dto.UsuarioDTO;
+import com.targetcar.usuario.infrastructure.entity.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Conversão DTO <-> entidade com quantidades de endereços e telefones próximas das reais
+// (a maioria dos usuários tem 1 ou 2, alguns chegam a 10)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class UsuarioConverterBenchmark {
+
+    @Param({"1", "3", "10"})
+    public int quantidade;
+
+    private final UsuarioConverter usuarioConverter = new UsuarioConverter();
+    private UsuarioDTO usuarioDTO;
+    private Usuario usuario;
+
+    @Setup
+    public void setup() {
+        List<EnderecoDTO> enderecos = new ArrayList<>();
+        List<TelefoneDTO> telefones = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            enderecos.add(EnderecoDTO.builder()
+                    .rua("Rua das Palmeiras")
+                    .numero(100L + i)
+                    .complemento("Apto " + i)
+                    .cidade("São Paulo")
+                    .estado("SP")
+                    .cep("01310-100")
+                    .build());
+            telefones.add(TelefoneDTO.builder()
+                    .ddd("11")
+                    .numero("99999000" + i)
+                    .build());
+        }
+        usuarioDTO = UsuarioDTO.builder()
+                .nome("Usuário de Teste")
+                .email("usuario@teste.com")
+                .senha("$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0")
+                .enderecos(enderecos)
+                .telefones(telefones)
+                .build();
+        usuario = usuarioConverter.paraUsuario(usuarioDTO);
+    }
+
+    @Benchmark
+    public Usuario paraUsuario() {
+        return usuarioConverter.paraUsuario(usuarioDTO);
+    }
+
+    @Benchmark
+    public UsuarioDTO paraUsuarioDTO() {
+        return usuarioConverter.paraUsuarioDTO(usuario);
+    }
+}
@@ -0,0 +1,95 @@
+package com.targetcar.usuario.business.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.targetcar.usuario.business.dto.EnderecoDTO;
+import com.targetcar.usuario.business.dto.TelefoneDTO;
+import com.targetcar.usuario.infrastructure.repository.UsuarioResumo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Resposta de GET /usuario: UsuarioDTO serializado pelo ObjectMapper (com e sem Blackbird)
+// comparado com o UsuarioJsonWriter. Os bytes alocados por resposta saem do profiler gc (gc.alloc.rate.norm)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class UsuarioRespostaBenchmark {
+
+    @Param({"1", "3", "10"})
+    public int quantidade;
+
+    private final UsuarioConverter usuarioConverter = new UsuarioConverter();
+    private final UsuarioJsonWriter usuarioJsonWriter = new UsuarioJsonWriter();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapperBlackbird = new ObjectMapper().registerModule(new BlackbirdModule());
+    private final OutputStream saida = OutputStream.nullOutputStream();
+
+    private UsuarioResumo usuario;
+    private List<EnderecoDTO> enderecos;
+    private List<TelefoneDTO> telefones;
+
+    @Setup
+    public void setup() {
+        usuario = new UsuarioResumo() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public String getNome() {
+                return "Usuário de Teste";
+            }
+
+            @Override
+            public String getEmail() {
+                return "usuario@teste.com";
+            }
+
+            @Override
+            public Long getVersao() {
+                return 0L;
+            }
+        };
+        enderecos = new ArrayList<>();
+        telefones = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            enderecos.add(new EnderecoDTO((long) i, "Rua das Palmeiras", 100L + i, "Apto " + i,
+                    "São Paulo", "SP", "01310-100", 0L));
+            telefones.add(new TelefoneDTO((long) i, "99999000" + i, "11", 0L));
+        }
+    }
+
+    @Benchmark
+    public void objectMapper() throws IOException {
+        objectMapper.writeValue(saida, usuarioConverter.paraUsuarioDTO(usuario, enderecos, telefones));
+    }
+
+    @Benchmark
+    public void objectMapperBlackbird() throws IOException {
+        objectMapperBlackbird.writeValue(saida, usuarioConverter.paraUsuarioDTO(usuario, enderecos, telefones));
+    }
+
+    @Benchmark
+    public void jsonWriter() throws IOException {
+        usuarioJsonWriter.escrever(usuario, enderecos, telefones, saida);
+    }
+}
@@ -0,0 +1,74 @@
+package com.targetcar.usuario.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Geração e leitura de tokens: o caminho atual (chave e parser reaproveitados, claims em cache)
+// comparado com a reconstrução da chave e do parser a cada chamada, como era feito antes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SEGREDO = Base64.getEncoder()
+            .encodeToString("segredo-de-benchmark-com-mais-de-32-bytes".getBytes());
+    private static final String EMAIL = "usuario@teste.com";
+
+    private JwtUtil jwtUtil;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SEGREDO, 10_000, new SimpleMeterRegistry());
+        parser = Jwts.parser().verifyWith(chave()).build();
+        token = jwtUtil.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return jwtUtil.generateToken(EMAIL);
+    }
+
+    // Token repetido: a assinatura só é verificada na primeira chamada
+    @Benchmark
+    public Claims extrairClaimsComCache() {
+        return jwtUtil.extrairClaims(token);
+    }
+
+    // Parse e verificação da assinatura com a chave e o parser já construídos
+    @Benchmark
+    public Claims extrairClaimsParserReaproveitado() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    // Chave decodificada e parser montado a cada chamada
+    @Benchmark
+    public Claims extrairClaimsReconstruindoChave() {
+        return Jwts.parser().verifyWith(chave()).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static SecretKey chave() {
+        return Keys.hmacShaKeyFor(Base64.getDecoder().decode(SEGREDO));
+    }
+}
@@ -0,0 +1,58 @@
+package com.targetcar.usuario.infrastructure.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Custo de cada algoritmo/força de senha no hardware em que roda, para escolher seguranca.senha.algoritmo
+// e seguranca.senha.bcrypt-forca com base em números. Rodar com: ./gradlew jmh
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String SENHA = "s3nh@-de-Teste";
+
+    @Param({"bcrypt-8", "bcrypt-10", "bcrypt-12", "argon2", "pbkdf2"})
+    public String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        passwordEncoder = switch (encoder) {
+            case "argon2" -> Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+            case "pbkdf2" -> Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8();
+            default -> new BCryptPasswordEncoder(Integer.parseInt(encoder.substring("bcrypt-".length())));
+        };
+        hash = passwordEncoder.encode(SENHA);
+    }
+
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(SENHA);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(SENHA, hash);
+    }
+}
@@ -0,0 +1,184 @@
+package com.targetcar.usuario.business;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.targetcar.usuario.business.converter.ViaCepConverter;
+import com.targetcar.usuario.infrastructure.clients.ViaCepAsyncClient;
+import com.targetcar.usuario.infrastructure.clients.ViaCepResilienteClient;
+import com.targetcar.usuario.infrastructure.clients.ViaCepDTO;
+import com.targetcar.usuario.infrastructure.entity.CepCache;
+import com.targetcar.usuario.infrastructure.exceptions.ServiceUnavailableException;
+import com.targetcar.usuario.infrastructure.repository.CepCacheRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+// Cache em dois níveis na frente do ViaCepClient: LRU em memória e, opcionalmente, a tabela tb_cep_cache.
+// CEPs inexistentes também ficam em cache (Optional vazio) por um tempo menor.
+// Depois do ttl a entrada é recarregada em segundo plano e, se o ViaCEP estiver indisponível,
+// o endereço antigo continua sendo servido até o fim da janela de dados obsoletos (viacep.cache.stale).
+@Service
+public class CepCacheService {
+
+    private final ViaCepResilienteClient client;
+    private final ViaCepAsyncClient asyncClient;
+    private final CepCacheRepository cepCacheRepository;
+    private final ViaCepConverter viaCepConverter;
+    private final ExecutorService executorIo;
+    private final boolean persistente;
+    private final Duration ttl;
+    private final AsyncLoadingCache<String, Optional<ViaCepDTO>> enderecos;
+
+    public CepCacheService(ViaCepResilienteClient client,
+                           ViaCepAsyncClient asyncClient,
+                           CepCacheRepository cepCacheRepository,
+                           @Qualifier("executorIo") ExecutorService executorIo,
+                           ViaCepConverter viaCepConverter,
+                           @Value("${viacep.cache.max-size:50000}") long tamanhoMaximo,
+                           @Value("${viacep.cache.ttl:P30D}") Duration ttl,
+                           @Value("${viacep.cache.ttl-negativo:PT1H}") Duration ttlNegativo,
+                           @Value("${viacep.cache.stale:P7D}") Duration stale,
+                           @Value("${viacep.cache.persistente:false}") boolean persistente) {
+        this.client = client;
+        this.asyncClient = asyncClient;
+        this.executorIo = executorIo;
+        this.cepCacheRepository = cepCacheRepository;
+        this.viaCepConverter = viaCepConverter;
+        this.persistente = persistente;
+        this.ttl = ttl;
+        // O cache carrega cada chave uma única vez: requisições simultâneas para o mesmo CEP
+        // aguardam a mesma chamada ao ViaCEP em vez de dispararem chamadas próprias.
+        // A carga roda no executorIo e quem espera fica bloqueado no CompletableFuture, não dentro de um
+        // bloco synchronized do ConcurrentHashMap (que prenderia a virtual thread à thread de plataforma)
+        this.enderecos = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiracaoPorResultado(ttl.plus(stale), ttlNegativo))
+                .refreshAfterWrite(ttl)
+                .executor(executorIo)
+                .buildAsync(this::carregar);
+    }
+
+    // Recebe o CEP já normalizado (8 dígitos); retorna vazio quando o CEP não existe
+    public Optional<ViaCepDTO> buscar(String cep) {
+        try {
+            return enderecos.get(cep).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    // Variante não bloqueante: usa o mesmo cache, então consultas síncronas e assíncronas do mesmo CEP
+    // compartilham a entrada e a chamada em andamento. Sem a tabela tb_cep_cache nenhuma thread fica bloqueada
+    public CompletableFuture<Optional<ViaCepDTO>> buscarAsync(String cep) {
+        return enderecos.get(cep, (chave, executor) -> carregarAsync(chave));
+    }
+
+    private Optional<ViaCepDTO> carregar(String cep) {
+        Optional<CepCache> salvo = buscarPersistido(cep);
+        if (salvo.isPresent()) {
+            return salvo.map(viaCepConverter::paraViaCepDTO);
+        }
+
+        ViaCepDTO dto;
+        try {
+            dto = client.buscaDadosDeEndereco(cep);
+        } catch (ServiceUnavailableException e) {
+            return obsoletoOuFalha(cep, e);
+        }
+        return paraResultado(cep, dto);
+    }
+
+    private CompletableFuture<Optional<ViaCepDTO>> carregarAsync(String cep) {
+        if (!persistente) {
+            return consultarAsync(cep);
+        }
+        // A consulta à tabela é bloqueante (JDBC) e roda no executorIo
+        return CompletableFuture.supplyAsync(() -> buscarPersistido(cep), executorIo)
+                .thenCompose(salvo -> salvo.isPresent()
+                        ? CompletableFuture.completedFuture(salvo.map(viaCepConverter::paraViaCepDTO))
+                        : consultarAsync(cep));
+    }
+
+    private CompletableFuture<Optional<ViaCepDTO>> consultarAsync(String cep) {
+        // Gravar e ler a tabela bloqueia; sem ela o resultado é tratado na própria thread do cliente HTTP
+        Executor posConsulta = persistente ? executorIo : Runnable::run;
+        return asyncClient.buscaDadosDeEndereco(cep)
+                .thenApplyAsync(dto -> paraResultado(cep, dto), posConsulta)
+                .exceptionallyAsync(erro -> {
+                    Throwable causa = erro instanceof CompletionException && erro.getCause() != null
+                            ? erro.getCause() : erro;
+                    if (causa instanceof ServiceUnavailableException indisponivel) {
+                        return obsoletoOuFalha(cep, indisponivel);
+                    }
+                    throw new CompletionException(causa);
+                }, posConsulta);
+    }
+
+    // Endereço salvo na tabela ainda dentro do ttl
+    private Optional<CepCache> buscarPersistido(String cep) {
+        if (!persistente) {
+            return Optional.empty();
+        }
+        return cepCacheRepository.findById(cep)
+                .filter(cepCache -> cepCache.getAtualizadoEm().plus(ttl).isAfter(Instant.now()));
+    }
+
+    // Com o ViaCEP fora do ar, um endereço salvo na tabela serve mesmo que tenha passado do ttl
+    private Optional<ViaCepDTO> obsoletoOuFalha(String cep, ServiceUnavailableException e) {
+        Optional<CepCache> obsoleto = persistente ? cepCacheRepository.findById(cep) : Optional.empty();
+        if (obsoleto.isPresent()) {
+            return obsoleto.map(viaCepConverter::paraViaCepDTO);
+        }
+        throw e;
+    }
+
+    private Optional<ViaCepDTO> paraResultado(String cep, ViaCepDTO dto) {
+        // Para CEPs inexistentes o ViaCEP responde {"erro": "true"}, que chega aqui sem nenhum campo preenchido
+        if (dto == null || dto.getCep() == null) {
+            return Optional.empty();
+        }
+
+        if (persistente) {
+            cepCacheRepository.save(viaCepConverter.paraCepCache(cep, dto, Instant.now()));
+        }
+        return Optional.of(dto);
+    }
+
+    private static class ExpiracaoPorResultado implements Expiry<String, Optional<ViaCepDTO>> {
+
+        private final long ttlNanos;
+        private final long ttlNegativoNanos;
+
+        ExpiracaoPorResultado(Duration ttl, Duration ttlNegativo) {
+            this.ttlNanos = ttl.toNanos();
+            this.ttlNegativoNanos = ttlNegativo.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String cep, Optional<ViaCepDTO> endereco, long currentTime) {
+            return endereco.isPresent() ? ttlNanos : ttlNegativoNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String cep, Optional<ViaCepDTO> endereco, long currentTime, long currentDuration) {
+            return expireAfterCreate(cep, endereco, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String cep, Optional<ViaCepDTO> endereco, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.targetcar.usuario.business;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.targetcar.usuario.business.dto.EnderecoDTO;
+import com.targetcar.usuario.business.dto.ResultadoImportacaoDTO;
+import com.targetcar.usuario.business.dto.ResultadoImportacaoDTO.StatusImportacao;
+import com.targetcar.usuario.business.dto.TelefoneDTO;
+import com.targetcar.usuario.business.dto.UsuarioDTO;
+import com.targetcar.usuario.infrastructure.repository.UsuarioImportacaoRepository;
+import com.targetcar.usuario.infrastructure.repository.UsuarioRepository;
+import com.targetcar.usuario.infrastructure.security.PasswordEncoderComExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+// Importação em massa de usuários a partir de um corpo NDJSON (um UsuarioDTO por linha).
+// A entrada é lida em lotes; para cada lote os e-mails são verificados em uma consulta, as senhas são
+// criptografadas em paralelo e usuários, endereços e telefones são gravados com batch JDBC.
+// O resultado de cada linha é escrito na saída (também NDJSON) assim que o lote termina.
+@Slf4j
+@Service
+public class ImportacaoUsuarioService {
+
+    private final UsuarioRepository usuarioRepository;
+    private final UsuarioImportacaoRepository usuarioImportacaoRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoLote;
+    private final ExecutorService executorSenhas;
+
+    public ImportacaoUsuarioService(UsuarioRepository usuarioRepository,
+                                    UsuarioImportacaoRepository usuarioImportacaoRepository,
+                                    PasswordEncoderComExecutor passwordEncoder,
+                                    TransactionTemplate transactionTemplate,
+                                    ObjectMapper objectMapper,
+                                    @Value("${usuario.importacao.tamanho-lote:500}") int tamanhoLote,
+                                    @Qualifier("executorSenhasImportacao") ExecutorService executorSenhas) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarioImportacaoRepository = usuarioImportacaoRepository;
+        this.passwordEncoder = passwordEncoder.semExecutor();
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.tamanhoLote = tamanhoLote;
+        this.executorSenhas = executorSenhas;
+    }
+
+    public void importar(InputStream entrada, OutputStream saida) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        List<LinhaImportacao> lote = new ArrayList<>(tamanhoLote);
+        int numeroLinha = 0;
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            numeroLinha++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            try {
+                UsuarioDTO usuario = objectMapper.readValue(linha, UsuarioDTO.class);
+                if (usuario.getEmail() == null || usuario.getSenha() == null) {
+                    escrever(saida, numeroLinha, usuario.getEmail(), StatusImportacao.ERRO, "Email e senha são obrigatórios");
+                    continue;
+                }
+                lote.add(new LinhaImportacao(numeroLinha, usuario));
+            } catch (JsonProcessingException e) {
+                escrever(saida, numeroLinha, null, StatusImportacao.ERRO, "JSON inválido");
+                continue;
+            }
+            if (lote.size() == tamanhoLote) {
+                processarLote(lote, saida);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            processarLote(lote, saida);
+        }
+        saida.flush();
+    }
+
+    private void processarLote(List<LinhaImportacao> lote, OutputStream saida) throws IOException {
+        // E-mails comparados em minúsculas, como no índice único uk_usuario_email_lower.
+        // A consulta prévia só evita criptografar senhas de e-mails já cadastrados; quem garante a unicidade é o índice
+        Set<String> emailsDoLote = new HashSet<>();
+        for (LinhaImportacao linha : lote) {
+            emailsDoLote.add(linha.emailNormalizado());
+        }
+        Set<String> emailsUsados = new HashSet<>(usuarioRepository.findEmailsExistentes(emailsDoLote));
+
+        List<LinhaImportacao> novos = new ArrayList<>(lote.size());
+        for (LinhaImportacao linha : lote) {
+            // Set.add retorna false para e-mails já cadastrados ou repetidos dentro do próprio arquivo
+            if (emailsUsados.add(linha.emailNormalizado())) {
+                novos.add(linha);
+            } else {
+                escrever(saida, linha.numero(), linha.usuario().getEmail(), StatusImportacao.CONFLITO, "Email já cadastrado");
+            }
+        }
+        if (novos.isEmpty()) {
+            saida.flush();
+            return;
+        }
+
+        try {
+            criptografarSenhas(novos);
+            List<Long> ids = transactionTemplate.execute(status -> inserir(novos));
+            for (int i = 0; i < novos.size(); i++) {
+                LinhaImportacao linha = novos.get(i);
+                // Sem id: outro cadastro gravou o mesmo e-mail entre a consulta e o INSERT
+                if (ids.get(i) != null) {
+                    escrever(saida, linha.numero(), linha.usuario().getEmail(), StatusImportacao.CRIADO, null);
+                } else {
+                    escrever(saida, linha.numero(), linha.usuario().getEmail(), StatusImportacao.CONFLITO, "Email já cadastrado");
+                }
+            }
+        } catch (RuntimeException e) {
+            // O detalhe (SQL, constraint) fica só no log; o cliente recebe uma mensagem fixa
+            log.error("Falha ao gravar o lote da importação (linhas {} a {})",
+                    novos.get(0).numero(), novos.get(novos.size() - 1).numero(), e);
+            for (LinhaImportacao linha : novos) {
+                escrever(saida, linha.numero(), linha.usuario().getEmail(), StatusImportacao.ERRO,
+                        "Erro ao gravar o lote");
+            }
+        }
+        saida.flush();
+    }
+
+    // O BCrypt domina o custo da importação; as senhas do lote são criptografadas em paralelo, nas threads
+    // da importação (usuario.importacao.threads-senha) e não no pool de senhas dos logins (seguranca.senha.threads).
+    // Um lote grande não enche a fila dos logins, mas as duas contagens disputam os mesmos núcleos:
+    // a soma das duas não deve passar do número de CPUs
+    private void criptografarSenhas(List<LinhaImportacao> linhas) {
+        List<CompletableFuture<Void>> tarefas = new ArrayList<>(linhas.size());
+        for (LinhaImportacao linha : linhas) {
+            UsuarioDTO usuario = linha.usuario();
+            tarefas.add(CompletableFuture.runAsync(
+                    () -> usuario.setSenha(passwordEncoder.encode(usuario.getSenha())), executorSenhas));
+        }
+        try {
+            CompletableFuture.allOf(tarefas.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    // Retorna o id de cada linha, ou null para as que o índice único rejeitou (sem endereços nem telefones)
+    private List<Long> inserir(List<LinhaImportacao> linhas) {
+        List<UsuarioDTO> usuarios = new ArrayList<>(linhas.size());
+        for (LinhaImportacao linha : linhas) {
+            usuarios.add(linha.usuario());
+        }
+        List<Long> ids = usuarioImportacaoRepository.inserirUsuarios(usuarios);
+
+        List<EnderecoDTO> enderecos = new ArrayList<>();
+        List<Long> idsEnderecos = new ArrayList<>();
+        List<TelefoneDTO> telefones = new ArrayList<>();
+        List<Long> idsTelefones = new ArrayList<>();
+        for (int i = 0; i < usuarios.size(); i++) {
+            if (ids.get(i) == null) {
+                continue;
+            }
+            UsuarioDTO usuario = usuarios.get(i);
+            if (usuario.getEnderecos() != null) {
+                for (EnderecoDTO endereco : usuario.getEnderecos()) {
+                    enderecos.add(endereco);
+                    idsEnderecos.add(ids.get(i));
+                }
+            }
+            if (usuario.getTelefones() != null) {
+                for (TelefoneDTO telefone : usuario.getTelefones()) {
+                    telefones.add(telefone);
+                    idsTelefones.add(ids.get(i));
+                }
+            }
+        }
+        if (!enderecos.isEmpty()) {
+            usuarioImportacaoRepository.inserirEnderecos(enderecos, idsEnderecos);
+        }
+        if (!telefones.isEmpty()) {
+            usuarioImportacaoRepository.inserirTelefones(telefones, idsTelefones);
+        }
+        return ids;
+    }
+
+    private void escrever(OutputStream saida, int linha, String email, StatusImportacao status, String mensagem)
+            throws IOException {
+        ResultadoImportacaoDTO resultado = ResultadoImportacaoDTO.builder()
+                .linha(linha)
+                .email(email)
+                .status(status)
+                .mensagem(mensagem)
+                .build();
+        saida.write(objectMapper.writeValueAsBytes(resultado));
+        saida.write('\n');
+    }
+
+    private record LinhaImportacao(int numero, UsuarioDTO usuario) {
+
+        String emailNormalizado() {
+            return usuario.getEmail().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -1,20 +1,34 @@
 package com.targetcar.usuario.business;
 
 import com.targetcar.usuario.business.converter.UsuarioConverter;
+import com.targetcar.usuario.business.converter.UsuarioJsonWriter;
 import com.targetcar.usuario.business.dto.EnderecoDTO;
+import com.targetcar.usuario.business.dto.PaginaUsuariosDTO;
+import com.targetcar.usuario.business.dto.ResultadoExclusaoDTO;
 import com.targetcar.usuario.business.dto.TelefoneDTO;
 import com.targetcar.usuario.business.dto.UsuarioDTO;
+import com.targetcar.usuario.business.dto.UsuarioListagemDTO;
+import com.targetcar.usuario.infrastructure.datasource.LeituraAposEscrita;
 import com.targetcar.usuario.infrastructure.entity.Endereco;
 import com.targetcar.usuario.infrastructure.entity.Telefone;
 import com.targetcar.usuario.infrastructure.entity.Usuario;
 import com.targetcar.usuario.infrastructure.exceptions.ConflictException;
+import com.targetcar.usuario.infrastructure.exceptions.IllegalArgumentException;
 import com.targetcar.usuario.infrastructure.exceptions.ResourceNotFoundException;
 import com.targetcar.usuario.infrastructure.exceptions.UnauthorizedException;
 import com.targetcar.usuario.infrastructure.repository.EnderecoRepository;
 import com.targetcar.usuario.infrastructure.repository.TelefoneRepository;
 import com.targetcar.usuario.infrastructure.repository.UsuarioRepository;
+import com.targetcar.usuario.infrastructure.repository.UsuarioResumo;
 import com.targetcar.usuario.infrastructure.security.JwtUtil;
+import com.targetcar.usuario.infrastructure.security.RevogacaoTokenService;
+import com.targetcar.usuario.infrastructure.security.UserDetailsServiceComCache;
 import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -23,30 +37,106 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("usuario.servico")
 @RequiredArgsConstructor
 public class UsuarioService {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 500;
+    private static final int TAMANHO_MAXIMO_EXCLUSAO = 10_000;
+    private static final int TAMANHO_BLOCO_EXCLUSAO = 1_000;
+
     private final UsuarioRepository usuarioRepository;
     private final UsuarioConverter usuarioConverter;
+    private final UsuarioJsonWriter usuarioJsonWriter;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
     private final EnderecoRepository enderecoRepository;
     private final TelefoneRepository telefoneRepository;
-
+    private final RevogacaoTokenService revogacaoTokenService;
+    private final UserDetailsServiceComCache userDetailsService;
+    private final LeituraAposEscrita leituraAposEscrita;
+    private final TransactionTemplate transactionTemplate;
+
+    // Sem consulta prévia de e-mail: o índice único uk_usuario_email_lower faz o INSERT falhar para e-mails
+    // já cadastrados (ignorando maiúsculas), então o cadastro é uma única ida ao banco e não tem a corrida
+    // entre verificar e inserir
     public UsuarioDTO salvaUsuario(UsuarioDTO usuarioDTO) {
-        emailExiste(usuarioDTO.getEmail());
         usuarioDTO.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
         Usuario usuario = usuarioConverter.paraUsuario(usuarioDTO);
-        return usuarioConverter.paraUsuarioDTO(
-                usuarioRepository.save(usuario)
+        UsuarioDTO salvo = usuarioConverter.paraUsuarioDTO(
+                comEmailUnico(usuario.getEmail(), () -> usuarioRepository.saveAndFlush(usuario))
         );
+        //O login logo após o cadastro lê do primário
+        leituraAposEscrita.registrarEscrita(salvo.getEmail());
+        return salvo;
+    }
+
+    // A escrita precisa fazer o flush aqui dentro (saveAndFlush/flush), para a violação do índice único virar
+    // ConflictException em vez de aparecer só no commit
+    private <T> T comEmailUnico(String email, Supplier<T> escrita) {
+        try {
+            return escrita.get();
+        } catch (DataIntegrityViolationException e) {
+            if (violouIndiceEmailUnico(e)) {
+                throw new ConflictException("Email já cadastrado " + email, e);
+            }
+            throw e;
+        }
+    }
+
+    // O Hibernate informa o nome da constraint/índice violado; não depende do texto da mensagem do banco
+    private static boolean violouIndiceEmailUnico(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao) {
+                return UsuarioRepository.INDICE_EMAIL_UNICO.equalsIgnoreCase(violacao.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    // Invalidações de cache e revogações rodam só depois do commit: antes dele outra requisição ainda lê
+    // os dados antigos do banco e os colocaria de volta no cache; com rollback não há nada a invalidar
+    private void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    // Controle otimista pelo cliente: a versão enviada (a que ele leu) precisa ser a atual.
+    // Alterações concorrentes entre a leitura e o flush são barradas pelo próprio @Version (409 no GlobalExceptionHandler)
+    private void verificarVersao(Long informada, Long atual) {
+        if (informada != null && !informada.equals(atual)) {
+            throw new ConflictException("O registro foi alterado por outra requisição; versão atual " + atual);
+        }
     }
 
     public String autenticarUsuario(UsuarioDTO usuarioDTO) {
         try {
+            //Se o hash salvo estiver abaixo do algoritmo/custo atual, o AuthenticationManager
+            //gera um novo hash com a senha informada e grava via UserDetailsPasswordService
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(usuarioDTO.getEmail(),
                             usuarioDTO.getSenha())
@@ -69,67 +159,227 @@ public class UsuarioService {
         }
     }
 
+    @Transactional(readOnly = true)
     public boolean verificaEmailExistente(String email) {
 
         return usuarioRepository.existsByEmail(email);
     }
 
+    // Leitura por projeções: nenhuma entidade é carregada, então não há dirty checking nem senha na resposta
+    @Transactional(readOnly = true)
     public UsuarioDTO buscarUsuarioPorEmail(String email) {
-        try {
-            return usuarioConverter.paraUsuarioDTO(
-                    usuarioRepository.findByEmail(email)
-                            .orElseThrow(
-                                    () -> new ResourceNotFoundException("Email não encontrado " + email)
-                            )
-            );
-        } catch (ResourceNotFoundException e) {
-            throw new ResourceNotFoundException("Email não encontrado " + email);
-        }
+        leituraAposEscrita.lerDoPrimarioSeRecente(email);
+        UsuarioResumo usuario = usuarioRepository.findResumoByEmail(email).orElseThrow(() ->
+                new ResourceNotFoundException("Email não encontrado " + email));
+
+        return usuarioConverter.paraUsuarioDTO(usuario,
+                enderecoRepository.findDTOByUsuarioId(usuario.getId()),
+                telefoneRepository.findDTOByUsuarioId(usuario.getId()));
     }
 
+    // Mesma consulta de buscarUsuarioPorEmail, escrita direto na resposta sem passar por UsuarioDTO.
+    // As consultas rodam em uma transação somente leitura que termina antes da escrita: a conexão volta
+    // ao pool antes do JSON ir para o cliente, por mais lento que ele leia
+    public void escreverUsuarioPorEmail(String email, OutputStream saida) throws IOException {
+        TransactionTemplate leitura = new TransactionTemplate(
+                Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        leitura.setReadOnly(true);
+        DadosUsuario dados = leitura.execute(status -> {
+            leituraAposEscrita.lerDoPrimarioSeRecente(email);
+            UsuarioResumo usuario = usuarioRepository.findResumoByEmail(email).orElseThrow(() ->
+                    new ResourceNotFoundException("Email não encontrado " + email));
+            return new DadosUsuario(usuario,
+                    enderecoRepository.findDTOByUsuarioId(usuario.getId()),
+                    telefoneRepository.findDTOByUsuarioId(usuario.getId()));
+        });
+
+        usuarioJsonWriter.escrever(dados.usuario(), dados.enderecos(), dados.telefones(), saida);
+    }
 
+    // Página da listagem por keyset. Busca uma linha a mais que o tamanho para saber se há próxima página;
+    // endereços e telefones, quando pedidos, vêm em uma consulta por coleção para a página inteira
+    @Transactional(readOnly = true)
+    public PaginaUsuariosDTO listarUsuarios(long apos, int tamanho, String estado, String cidade,
+                                            boolean incluirEnderecos, boolean incluirTelefones) {
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+        }
+        Pageable limite = PageRequest.of(0, tamanho + 1);
+        boolean filtraEstado = estado != null && !estado.isBlank();
+        boolean filtraCidade = cidade != null && !cidade.isBlank();
+        List<UsuarioResumo> linhas;
+        if (filtraEstado && filtraCidade) {
+            linhas = usuarioRepository.listarAposPorEstadoECidade(apos, estado, cidade, limite);
+        } else if (filtraEstado) {
+            linhas = usuarioRepository.listarAposPorEstado(apos, estado, limite);
+        } else if (filtraCidade) {
+            linhas = usuarioRepository.listarAposPorCidade(apos, cidade, limite);
+        } else {
+            linhas = usuarioRepository.listarApos(apos, limite);
+        }
+
+        boolean temProxima = linhas.size() > tamanho;
+        List<UsuarioResumo> pagina = temProxima ? linhas.subList(0, tamanho) : linhas;
+        List<Long> ids = pagina.stream().map(UsuarioResumo::getId).toList();
+
+        Map<Long, List<EnderecoDTO>> enderecos = incluirEnderecos && !ids.isEmpty()
+                ? enderecoRepository.findByUsuarioIds(ids).stream().collect(Collectors.groupingBy(
+                        Endereco::getUsuario_id, Collectors.mapping(usuarioConverter::paraEnderecoDTO, Collectors.toList())))
+                : Map.of();
+        Map<Long, List<TelefoneDTO>> telefones = incluirTelefones && !ids.isEmpty()
+                ? telefoneRepository.findByUsuarioIds(ids).stream().collect(Collectors.groupingBy(
+                        Telefone::getUsuario_id, Collectors.mapping(usuarioConverter::paraTelefoneDTO, Collectors.toList())))
+                : Map.of();
+
+        List<UsuarioListagemDTO> usuarios = pagina.stream()
+                .map(usuario -> UsuarioListagemDTO.builder()
+                        .id(usuario.getId())
+                        .nome(usuario.getNome())
+                        .email(usuario.getEmail())
+                        .enderecos(incluirEnderecos ? enderecos.getOrDefault(usuario.getId(), List.of()) : null)
+                        .telefones(incluirTelefones ? telefones.getOrDefault(usuario.getId(), List.of()) : null)
+                        .build())
+                .toList();
+        return PaginaUsuariosDTO.builder()
+                .usuarios(usuarios)
+                .proximo(temProxima ? ids.get(ids.size() - 1) : null)
+                .build();
+    }
+
+    @Transactional
     public void deletaUsuarioPorEmail(String email) {
+        if (excluir(List.of(email)).isEmpty()) {
+            throw new ResourceNotFoundException("Email não encontrado " + email);
+        }
+    }
+
+    // Expurgo em lote (LGPD): todos os e-mails em uma transação, em blocos de TAMANHO_BLOCO_EXCLUSAO
+    // para limitar o número de parâmetros de cada IN. E-mails não cadastrados são ignorados
+    @Transactional
+    public ResultadoExclusaoDTO excluirUsuariosPorEmails(List<String> emails) {
+        if (emails == null || emails.isEmpty() || emails.size() > TAMANHO_MAXIMO_EXCLUSAO) {
+            throw new IllegalArgumentException("A lista deve ter entre 1 e " + TAMANHO_MAXIMO_EXCLUSAO + " e-mails");
+        }
+        int excluidos = 0;
+        for (int inicio = 0; inicio < emails.size(); inicio += TAMANHO_BLOCO_EXCLUSAO) {
+            excluidos += excluir(emails.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_EXCLUSAO, emails.size()))).size();
+        }
+        return ResultadoExclusaoDTO.builder()
+                .solicitados(emails.size())
+                .excluidos(excluidos)
+                .build();
+    }
 
-        usuarioRepository.deleteByEmail(email);
+    // Exclusão em comandos de conjunto: uma consulta para os ids e um DELETE por tabela, em vez de carregar
+    // cada usuário com as duas coleções e apagar linha a linha pelo cascade. Retorna os e-mails excluídos
+    private List<String> excluir(List<String> emails) {
+        List<String> normalizados = emails.stream()
+                .filter(Objects::nonNull)
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        if (normalizados.isEmpty()) {
+            return List.of();
+        }
+        List<UsuarioResumo> usuarios = usuarioRepository.findResumoByEmailsNormalizados(normalizados);
+        if (usuarios.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = usuarios.stream().map(UsuarioResumo::getId).toList();
+        enderecoRepository.deleteByUsuarioIds(ids);
+        telefoneRepository.deleteByUsuarioIds(ids);
+        usuarioRepository.deleteAllByIdInBatch(ids);
+
+        List<String> excluidos = usuarios.stream().map(UsuarioResumo::getEmail).toList();
+        for (String email : excluidos) {
+            leituraAposEscrita.registrarEscrita(email);
+        }
+        aposCommit(() -> {
+            for (String email : excluidos) {
+                userDetailsService.evict(email);
+                revogacaoTokenService.revogarTokens(email);
+            }
+        });
+        return excluidos;
     }
 
     public UsuarioDTO atualizaDadosUsuario(String token, UsuarioDTO dto) {
         //Aqui buscamos o email do usuário através do token (tirar a obrigatoriedade do email)
         String email = jwtUtil.extrairEmailToken(token.substring(7));
 
-        //Criptografia de senha
+        //Criptografia de senha antes da transação: o BCrypt leva dezenas de ms e não deve rodar
+        //com a conexão presa nem depois de o usuário ter sido lido
         dto.setSenha(dto.getSenha() != null ? passwordEncoder.encode(dto.getSenha()) : null);
 
-        //Busca os dados do usuário no banco de dados
-        Usuario usuarioEntity = usuarioRepository.findByEmail(email).orElseThrow(() ->
+        return transactionTemplate.execute(status -> atualizarUsuario(email, dto));
+    }
+
+    private UsuarioDTO atualizarUsuario(String email, UsuarioDTO dto) {
+        //Busca os dados do usuário no banco de dados, já com endereços e telefones
+        Usuario usuario = usuarioRepository.buscarCompletoPorEmail(email).orElseThrow(() ->
                 new ResourceNotFoundException("Email não localizado"));
+        verificarVersao(dto.getVersao(), usuario.getVersao());
+
+        //Aplica os campos informados na entidade gerenciada; o flush grava só as colunas alteradas
+        //e não executa UPDATE nenhum se nada mudou
+        Long versaoAnterior = usuario.getVersao();
+        usuarioConverter.updateUsuario(dto, usuario);
+        comEmailUnico(usuario.getEmail(), () -> {
+            usuarioRepository.flush();
+            return usuario;
+        });
+        UsuarioDTO usuarioAtualizado = usuarioConverter.paraUsuarioDTO(usuario);
+        if (versaoAnterior.equals(usuario.getVersao())) {
+            return usuarioAtualizado;
+        }
+
+        //Leituras do próprio usuário vão para o primário logo após o commit
+        leituraAposEscrita.registrarEscrita(email);
+        leituraAposEscrita.registrarEscrita(usuario.getEmail());
 
-        //Mesclou os dados que recebemos na requisição DTO com os dados do banco de dados
-        Usuario usuario = usuarioConverter.updateUsuario(dto, usuarioEntity);
+        String novoEmail = usuario.getEmail();
+        aposCommit(() -> {
+            //Senha ou e-mail podem ter mudado: descarta o usuário em cache
+            userDetailsService.evict(email);
+            userDetailsService.evict(novoEmail);
 
-        //Salvou os dados do usuário convertido e depois pegou o retorno e converteu para UsuarioDTO
-        return usuarioConverter.paraUsuarioDTO(usuarioRepository.save(usuario));
+            //Tokens emitidos para o e-mail antigo deixam de valer (mudar só maiúsculas não troca de usuário)
+            if (!email.equalsIgnoreCase(novoEmail)) {
+                revogacaoTokenService.revogarTokens(email);
+            }
+        });
+        return usuarioAtualizado;
     }
 
+    // Atualização parcial na entidade gerenciada: o flush (antes de montar a resposta, para ela trazer a nova versão)
+    // grava só as colunas alteradas, ou nada se os valores forem os mesmos
+    @Transactional
     public EnderecoDTO atualizaEndereco(Long idEndereco, EnderecoDTO enderecoDTO) {
 
-        Endereco entity = enderecoRepository.findById(idEndereco).orElseThrow(() ->
+        Endereco endereco = enderecoRepository.findById(idEndereco).orElseThrow(() ->
                 new ResourceNotFoundException("Id não encontrado " + idEndereco));
+        verificarVersao(enderecoDTO.getVersao(), endereco.getVersao());
 
-        Endereco endereco = usuarioConverter.updateEndereco(enderecoDTO, entity);
+        usuarioConverter.updateEndereco(enderecoDTO, endereco);
+        enderecoRepository.flush();
 
-        return usuarioConverter.paraEnderecoDTO(enderecoRepository.save(endereco));
+        leituraAposEscrita.registrarEscritaDoUsuarioAutenticado();
+        return usuarioConverter.paraEnderecoDTO(endereco);
 
     }
 
+    @Transactional
     public TelefoneDTO atualizaTelefone(Long idTelefone, TelefoneDTO dto) {
 
-        Telefone entity = telefoneRepository.findById(idTelefone).orElseThrow(() ->
+        Telefone telefone = telefoneRepository.findById(idTelefone).orElseThrow(() ->
                 new ResourceNotFoundException("Id não encontrado " + idTelefone));
+        verificarVersao(dto.getVersao(), telefone.getVersao());
 
-        Telefone telefone = usuarioConverter.updateTelefone(dto, entity);
+        usuarioConverter.updateTelefone(dto, telefone);
+        telefoneRepository.flush();
 
-        return usuarioConverter.paraTelefoneDTO(telefoneRepository.save(telefone));
+        leituraAposEscrita.registrarEscritaDoUsuarioAutenticado();
+        return usuarioConverter.paraTelefoneDTO(telefone);
 
     }
 
@@ -140,6 +390,7 @@ public class UsuarioService {
 
         Endereco endereco = usuarioConverter.paraEnderecoEntity(dto, usuario.getId());
         Endereco enderecoEntity = enderecoRepository.save(endereco);
+        leituraAposEscrita.registrarEscrita(email);
         return usuarioConverter.paraEnderecoDTO(enderecoEntity);
     }
 
@@ -149,9 +400,13 @@ public class UsuarioService {
                 new ResourceNotFoundException("Email não localizado " + email));
 
         Telefone telefone = usuarioConverter.paraTelefoneEntity(dto, usuario.getId());
-        return usuarioConverter.paraTelefoneDTO(
+        TelefoneDTO salvo = usuarioConverter.paraTelefoneDTO(
                 telefoneRepository.save(telefone)
         );
+        leituraAposEscrita.registrarEscrita(email);
+        return salvo;
     }
 
+    private record DadosUsuario(UsuarioResumo usuario, List<EnderecoDTO> enderecos, List<TelefoneDTO> telefones) {
+    }
 }
@@ -1,34 +1,170 @@
 package com.targetcar.usuario.business;
 
-import com.targetcar.usuario.infrastructure.clients.ViaCepClient;
+import com.targetcar.usuario.business.dto.ResultadoCepDTO;
+import com.targetcar.usuario.infrastructure.clients.CepIndiceOffline;
+import com.targetcar.usuario.infrastructure.clients.CepNormalizador;
 import com.targetcar.usuario.infrastructure.clients.ViaCepDTO;
 import com.targetcar.usuario.infrastructure.exceptions.IllegalArgumentException;
-import lombok.RequiredArgsConstructor;
+import com.targetcar.usuario.infrastructure.exceptions.ResourceNotFoundException;
+import com.targetcar.usuario.infrastructure.exceptions.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
-@RequiredArgsConstructor
 public class ViaCepService {
 
-    private final ViaCepClient client;
+    private static final int TAMANHO_MAXIMO_LOTE = 1000;
+
+    private final CepIndiceOffline cepIndiceOffline;
+    private final CepCacheService cepCacheService;
+    // Consultas em andamento por lote: um lote grande não ocupa sozinho a fila do ViaCepAsyncClient
+    private final int maxConcorrentesPorLote;
+
+    public ViaCepService(CepIndiceOffline cepIndiceOffline,
+                         CepCacheService cepCacheService,
+                         @Value("${viacep.lote.max-concorrentes:16}") int maxConcorrentesPorLote) {
+        this.cepIndiceOffline = cepIndiceOffline;
+        this.cepCacheService = cepCacheService;
+        this.maxConcorrentesPorLote = maxConcorrentesPorLote;
+    }
 
     public ViaCepDTO buscarDadosEndereco(String cep) {
-        return client.buscaDadosDeEndereco(processarCep(cep));
+        int chave = chaveCep(cep);
+        // A base offline responde primeiro; o ViaCEP (via cache) só é consultado para CEPs ausentes dela
+        return cepIndiceOffline.buscar(chave)
+                .or(() -> cepCacheService.buscar(CepNormalizador.paraTexto(chave)))
+                .orElseThrow(() -> new ResourceNotFoundException("CEP não encontrado " + CepNormalizador.paraTexto(chave)));
     }
 
+    // Versão não bloqueante da consulta: a base offline responde na hora e o restante segue o futuro do cache,
+    // sem prender a thread da requisição enquanto o ViaCEP responde
+    public CompletableFuture<ViaCepDTO> buscarDadosEnderecoAsync(String cep) {
+        int chave = chaveCep(cep);
+        return buscarNormalizadoAsync(chave)
+                .thenApply(endereco -> endereco.orElseThrow(
+                        () -> new ResourceNotFoundException("CEP não encontrado " + CepNormalizador.paraTexto(chave))));
+    }
+
+    // Consulta vários CEPs de uma vez. Entradas que normalizam para o mesmo CEP geram uma única consulta e
+    // CEPs em cache respondem na hora. Os demais vão ao ViaCEP no máximo viacep.lote.max-concorrentes por vez:
+    // cada consulta que termina libera a próxima. Cada CEP tem o próprio resultado: um erro não derruba o lote
+    public CompletableFuture<Map<String, ResultadoCepDTO>> buscarDadosEnderecoEmLote(List<String> ceps) {
+        if (ceps.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("O lote aceita no máximo " + TAMANHO_MAXIMO_LOTE + " CEPs");
+        }
+        Map<Integer, CompletableFuture<ResultadoCepDTO>> porCep = new HashMap<>();
+        List<Integer> chaves = new ArrayList<>();
+        Map<String, CompletableFuture<ResultadoCepDTO>> porEntrada = new LinkedHashMap<>();
+        for (String cep : ceps) {
+            // JSON não tem chave nula: um null no lote aparece como "null" no resultado
+            String entrada = String.valueOf(cep);
+            if (porEntrada.containsKey(entrada)) {
+                continue;
+            }
+            int chave = cep == null ? CepNormalizador.INVALIDO : CepNormalizador.paraChave(cep);
+            if (chave == CepNormalizador.INVALIDO) {
+                porEntrada.put(entrada, CompletableFuture.completedFuture(resultado(ResultadoCepDTO.StatusCep.INVALIDO,
+                        null, "O cep contém caracteres inválidos, favor verificar")));
+                continue;
+            }
+            porEntrada.put(entrada, porCep.computeIfAbsent(chave, novaChave -> {
+                chaves.add(novaChave);
+                return new CompletableFuture<>();
+            }));
+        }
 
-    private String processarCep(String cep) {
-        String cepFormatado = cep.replace(" ", "").
-                replace("-", "");
+        AtomicInteger proxima = new AtomicInteger();
+        for (int i = 0; i < Math.min(maxConcorrentesPorLote, chaves.size()); i++) {
+            resolverProximas(chaves, porCep, proxima);
+        }
 
+        return CompletableFuture.allOf(porEntrada.values().toArray(CompletableFuture[]::new))
+                .thenApply(concluido -> {
+                    Map<String, ResultadoCepDTO> resultados = new LinkedHashMap<>();
+                    porEntrada.forEach((cep, futuro) -> resultados.put(cep, futuro.join()));
+                    return resultados;
+                });
+    }
 
-        if (!cepFormatado.matches("\\d+")
-                || !Objects.equals(cepFormatado.length(), 8)) {
-            throw new IllegalArgumentException("O cep contém caracteres inválidos, favor verificar");
+    // Uma das "vagas" do lote: resolve CEPs em sequência até encontrar um que não respondeu na hora;
+    // a vaga continua quando essa consulta termina
+    private void resolverProximas(List<Integer> chaves, Map<Integer, CompletableFuture<ResultadoCepDTO>> porCep,
+                                  AtomicInteger proxima) {
+        int indice;
+        while ((indice = proxima.getAndIncrement()) < chaves.size()) {
+            CompletableFuture<ResultadoCepDTO> destino = porCep.get(chaves.get(indice));
+            CompletableFuture<ResultadoCepDTO> consulta = resolverNoLote(chaves.get(indice));
+            if (!consulta.isDone()) {
+                consulta.thenAccept(resultado -> {
+                    destino.complete(resultado);
+                    resolverProximas(chaves, porCep, proxima);
+                });
+                return;
+            }
+            destino.complete(consulta.join());
         }
+    }
 
-        return cepFormatado;
+    // Nunca completa com erro: falhas viram o status do CEP
+    private CompletableFuture<ResultadoCepDTO> resolverNoLote(int chave) {
+        String cepFormatado = CepNormalizador.paraTexto(chave);
+        CompletableFuture<Optional<ViaCepDTO>> consulta;
+        try {
+            consulta = buscarNormalizadoAsync(chave);
+        } catch (RuntimeException e) {
+            consulta = CompletableFuture.failedFuture(e);
+        }
+        return consulta.handle((endereco, erro) -> {
+            if (erro == null) {
+                return endereco
+                        .map(dto -> resultado(ResultadoCepDTO.StatusCep.ENCONTRADO, dto, null))
+                        .orElseGet(() -> resultado(ResultadoCepDTO.StatusCep.NAO_ENCONTRADO, null,
+                                "CEP não encontrado " + cepFormatado));
+            }
+            Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+            if (causa instanceof ServiceUnavailableException) {
+                return resultado(ResultadoCepDTO.StatusCep.INDISPONIVEL, null, causa.getMessage());
+            }
+            return resultado(ResultadoCepDTO.StatusCep.ERRO, null, "Erro ao consultar o CEP " + cepFormatado);
+        });
+    }
+
+    private CompletableFuture<Optional<ViaCepDTO>> buscarNormalizadoAsync(int chave) {
+        Optional<ViaCepDTO> offline = cepIndiceOffline.buscar(chave);
+        if (offline.isPresent()) {
+            return CompletableFuture.completedFuture(offline);
+        }
+        return cepCacheService.buscarAsync(CepNormalizador.paraTexto(chave));
+    }
+
+    private static ResultadoCepDTO resultado(ResultadoCepDTO.StatusCep status, ViaCepDTO endereco, String mensagem) {
+        return ResultadoCepDTO.builder()
+                .status(status)
+                .endereco(endereco)
+                .mensagem(mensagem)
+                .build();
+    }
+
+    // Visível no pacote para o benchmark de normalização (src/jmh)
+    String processarCep(String cep) {
+        return CepNormalizador.paraTexto(chaveCep(cep));
+    }
+
+    private int chaveCep(String cep) {
+        int chave = CepNormalizador.paraChave(cep);
+        if (chave == CepNormalizador.INVALIDO) {
+            throw new IllegalArgumentException("O cep contém caracteres inválidos, favor verificar");
+        }
+        return chave;
     }
 }
@@ -6,12 +6,15 @@ import com.targetcar.usuario.business.dto.UsuarioDTO;
 import com.targetcar.usuario.infrastructure.entity.Endereco;
 import com.targetcar.usuario.infrastructure.entity.Telefone;
 import com.targetcar.usuario.infrastructure.entity.Usuario;
+import com.targetcar.usuario.infrastructure.repository.UsuarioResumo;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Component
+@Timed("usuario.converter")
 public class UsuarioConverter {
 
     public Usuario paraUsuario(UsuarioDTO usuarioDTO){
@@ -65,6 +68,18 @@ public class UsuarioConverter {
                         paraListaEnderecoDTO(usuarioDTO.getEnderecos()) : null)
                 .telefones(usuarioDTO.getTelefones() != null ?
                         paraListaTelefonesDTO(usuarioDTO.getTelefones()) : null)
+                .versao(usuarioDTO.getVersao())
+                .build();
+    }
+
+    // Resposta de leitura montada a partir da projeção, sem a senha
+    public UsuarioDTO paraUsuarioDTO(UsuarioResumo usuario, List<EnderecoDTO> enderecos, List<TelefoneDTO> telefones){
+        return UsuarioDTO.builder()
+                .nome(usuario.getNome())
+                .email(usuario.getEmail())
+                .enderecos(enderecos)
+                .telefones(telefones)
+                .versao(usuario.getVersao())
                 .build();
     }
 
@@ -85,6 +100,7 @@ public class UsuarioConverter {
                 .complemento(endereco.getComplemento())
                 .cep(endereco.getCep())
                 .estado(endereco.getEstado())
+                .versao(endereco.getVersao())
                 .build();
     }
 
@@ -97,40 +113,53 @@ public class UsuarioConverter {
                 .id(telefone.getId())
                 .numero(telefone.getNumero())
                 .ddd(telefone.getDdd())
+                .versao(telefone.getVersao())
                 .build();
     }
 
-    public Usuario updateUsuario(UsuarioDTO usuarioDTO, Usuario entity){
-        return Usuario.builder()
-                .nome(usuarioDTO.getNome() != null ? usuarioDTO.getNome() : entity.getNome())
-                .id(entity.getId())
-                .senha(usuarioDTO.getSenha() !=null ? usuarioDTO.getSenha() : entity.getSenha())
-                .email(usuarioDTO.getEmail() != null ? usuarioDTO.getEmail() : entity.getEmail())
-                .enderecos(entity.getEnderecos())
-                .telefones(entity.getTelefones())
-                .build();
+    // Os update* aplicam os campos informados (não nulos) direto na entidade gerenciada, sem criar uma cópia
+    // desanexada para o merge. O dirty checking compara com o estado carregado: valor igual ao atual não gera
+    // escrita e, com @DynamicUpdate, o UPDATE leva só as colunas que mudaram
+    public void updateUsuario(UsuarioDTO usuarioDTO, Usuario entity){
+        if (usuarioDTO.getNome() != null) {
+            entity.setNome(usuarioDTO.getNome());
+        }
+        if (usuarioDTO.getSenha() != null) {
+            entity.setSenha(usuarioDTO.getSenha());
+        }
+        if (usuarioDTO.getEmail() != null) {
+            entity.setEmail(usuarioDTO.getEmail());
+        }
     }
 
-    public Endereco updateEndereco(EnderecoDTO dto, Endereco entity){
-        return Endereco.builder()
-                .id(entity.getId())
-                .rua(dto.getRua() != null ? dto.getRua() :  entity.getRua())
-                .numero(dto.getNumero() != null ? dto.getNumero() : entity.getNumero())
-                .cidade(dto.getCidade() != null ? dto.getCidade() : entity.getCidade())
-                .cep(dto.getCep() != null ? dto.getCep() : entity.getCep())
-                .complemento(dto.getComplemento() != null ? dto.getComplemento() : entity.getComplemento())
-                .estado(dto.getEstado() != null ? dto.getEstado() : entity.getEstado())
-                .usuario_id(entity.getUsuario_id())
-                .build();
+    public void updateEndereco(EnderecoDTO dto, Endereco entity){
+        if (dto.getRua() != null) {
+            entity.setRua(dto.getRua());
+        }
+        if (dto.getNumero() != null) {
+            entity.setNumero(dto.getNumero());
+        }
+        if (dto.getCidade() != null) {
+            entity.setCidade(dto.getCidade());
+        }
+        if (dto.getCep() != null) {
+            entity.setCep(dto.getCep());
+        }
+        if (dto.getComplemento() != null) {
+            entity.setComplemento(dto.getComplemento());
+        }
+        if (dto.getEstado() != null) {
+            entity.setEstado(dto.getEstado());
+        }
     }
 
-    public Telefone updateTelefone(TelefoneDTO dto, Telefone entity){
-        return Telefone.builder()
-                .id(entity.getId())
-                .ddd(dto.getDdd() != null ? dto.getDdd() : entity.getDdd())
-                .numero(dto.getNumero() != null ? dto.getNumero() : entity.getNumero())
-                .usuario_id(entity.getUsuario_id())
-                .build();
+    public void updateTelefone(TelefoneDTO dto, Telefone entity){
+        if (dto.getDdd() != null) {
+            entity.setDdd(dto.getDdd());
+        }
+        if (dto.getNumero() != null) {
+            entity.setNumero(dto.getNumero());
+        }
     }
 
     public Endereco paraEnderecoEntity(EnderecoDTO dto, Long idUsuario){
@@ -0,0 +1,109 @@
+package com.targetcar.usuario.business.converter;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.targetcar.usuario.business.dto.EnderecoDTO;
+import com.targetcar.usuario.business.dto.TelefoneDTO;
+import com.targetcar.usuario.infrastructure.repository.UsuarioResumo;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// Escreve a resposta de consulta do usuário direto no OutputStream, no mesmo formato JSON do UsuarioDTO
+// (sem a senha), sem montar o UsuarioDTO. Recebe os dados já lidos: a escrita acontece fora da transação,
+// para um cliente lento não segurar uma conexão do pool.
+// Os nomes dos campos são pré-codificados uma única vez (SerializedString)
+@Component
+public class UsuarioJsonWriter {
+
+    private static final SerializableString NOME = new SerializedString("nome");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString ENDERECOS = new SerializedString("enderecos");
+    private static final SerializableString TELEFONES = new SerializedString("telefones");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString RUA = new SerializedString("rua");
+    private static final SerializableString NUMERO = new SerializedString("numero");
+    private static final SerializableString COMPLEMENTO = new SerializedString("complemento");
+    private static final SerializableString CIDADE = new SerializedString("cidade");
+    private static final SerializableString ESTADO = new SerializedString("estado");
+    private static final SerializableString CEP = new SerializedString("cep");
+    private static final SerializableString DDD = new SerializedString("ddd");
+    private static final SerializableString VERSAO = new SerializedString("versao");
+
+    // O OutputStream pertence à resposta HTTP: o gerador não o fecha
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    public void escrever(UsuarioResumo usuario,
+                         List<EnderecoDTO> enderecos,
+                         List<TelefoneDTO> telefones,
+                         OutputStream saida) throws IOException {
+        try (JsonGenerator gerador = jsonFactory.createGenerator(saida, JsonEncoding.UTF8)) {
+            gerador.writeStartObject();
+            gerador.writeFieldName(NOME);
+            gerador.writeString(usuario.getNome());
+            gerador.writeFieldName(EMAIL);
+            gerador.writeString(usuario.getEmail());
+
+            gerador.writeFieldName(ENDERECOS);
+            gerador.writeStartArray();
+            for (EnderecoDTO endereco : enderecos) {
+                escrever(gerador, endereco);
+            }
+            gerador.writeEndArray();
+
+            gerador.writeFieldName(TELEFONES);
+            gerador.writeStartArray();
+            for (TelefoneDTO telefone : telefones) {
+                escrever(gerador, telefone);
+            }
+            gerador.writeEndArray();
+
+            escreverNumero(gerador, VERSAO, usuario.getVersao());
+            gerador.writeEndObject();
+        }
+    }
+
+    private void escrever(JsonGenerator gerador, EnderecoDTO endereco) throws IOException {
+        gerador.writeStartObject();
+        escreverNumero(gerador, ID, endereco.getId());
+        escreverTexto(gerador, RUA, endereco.getRua());
+        escreverNumero(gerador, NUMERO, endereco.getNumero());
+        escreverTexto(gerador, COMPLEMENTO, endereco.getComplemento());
+        escreverTexto(gerador, CIDADE, endereco.getCidade());
+        escreverTexto(gerador, ESTADO, endereco.getEstado());
+        escreverTexto(gerador, CEP, endereco.getCep());
+        escreverNumero(gerador, VERSAO, endereco.getVersao());
+        gerador.writeEndObject();
+    }
+
+    private void escrever(JsonGenerator gerador, TelefoneDTO telefone) throws IOException {
+        gerador.writeStartObject();
+        escreverNumero(gerador, ID, telefone.getId());
+        escreverTexto(gerador, NUMERO, telefone.getNumero());
+        escreverTexto(gerador, DDD, telefone.getDdd());
+        escreverNumero(gerador, VERSAO, telefone.getVersao());
+        gerador.writeEndObject();
+    }
+
+    private static void escreverTexto(JsonGenerator gerador, SerializableString campo, String valor) throws IOException {
+        gerador.writeFieldName(campo);
+        gerador.writeString(valor);
+    }
+
+    private static void escreverNumero(JsonGenerator gerador, SerializableString campo, Long valor) throws IOException {
+        gerador.writeFieldName(campo);
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeNumber(valor);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.targetcar.usuario.business.converter;
+
+import com.targetcar.usuario.infrastructure.clients.CepNormalizador;
+import com.targetcar.usuario.infrastructure.clients.ViaCepDTO;
+import com.targetcar.usuario.infrastructure.entity.CepCache;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+@Timed("usuario.converter")
+public class ViaCepConverter {
+
+    public CepCache paraCepCache(String cep, ViaCepDTO dto, Instant atualizadoEm){
+        return CepCache.builder()
+                .cep(cep)
+                .logradouro(dto.getLogradouro())
+                .complemento(dto.getComplemento())
+                .unidade(dto.getUnidade())
+                .bairro(dto.getBairro())
+                .localidade(dto.getLocalidade())
+                .uf(dto.getUf())
+                .estado(dto.getEstado())
+                .regiao(dto.getRegiao())
+                .ibge(dto.getIbge())
+                .gia(dto.getGia())
+                .ddd(dto.getDdd())
+                .siafi(dto.getSiafi())
+                .atualizadoEm(atualizadoEm)
+                .build();
+    }
+
+    public ViaCepDTO paraViaCepDTO(CepCache entity){
+        return ViaCepDTO.builder()
+                .cep(CepNormalizador.formatado(CepNormalizador.paraChave(entity.getCep())))
+                .logradouro(entity.getLogradouro())
+                .complemento(entity.getComplemento())
+                .unidade(entity.getUnidade())
+                .bairro(entity.getBairro())
+                .localidade(entity.getLocalidade())
+                .uf(entity.getUf())
+                .estado(entity.getEstado())
+                .regiao(entity.getRegiao())
+                .ibge(entity.getIbge())
+                .gia(entity.getGia())
+                .ddd(entity.getDdd())
+                .siafi(entity.getSiafi())
+                .build();
+    }
+}
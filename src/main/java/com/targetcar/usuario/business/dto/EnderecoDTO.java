@@ -16,4 +16,5 @@ public class EnderecoDTO {
     private String cidade;
     private String estado;
     private String cep;
+    private Long versao;
 }
@@ -0,0 +1,17 @@
+package com.targetcar.usuario.business.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// proximo é o valor de "apos" para buscar a página seguinte; nulo na última página
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PaginaUsuariosDTO {
+
+    private List<UsuarioListagemDTO> usuarios;
+    private Long proximo;
+}
@@ -0,0 +1,22 @@
+package com.targetcar.usuario.business.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.targetcar.usuario.infrastructure.clients.ViaCepDTO;
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoCepDTO {
+
+    private StatusCep status;
+    private ViaCepDTO endereco;
+    private String mensagem;
+
+    public enum StatusCep {
+        ENCONTRADO, NAO_ENCONTRADO, INVALIDO, INDISPONIVEL, ERRO
+    }
+}
@@ -0,0 +1,15 @@
+package com.targetcar.usuario.business.dto;
+
+import lombok.*;
+
+// Resultado da exclusão em lote: e-mails recebidos e usuários efetivamente excluídos
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResultadoExclusaoDTO {
+
+    private int solicitados;
+    private int excluidos;
+}
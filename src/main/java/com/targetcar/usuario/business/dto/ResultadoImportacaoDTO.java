@@ -0,0 +1,20 @@
+package com.targetcar.usuario.business.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResultadoImportacaoDTO {
+
+    private int linha;
+    private String email;
+    private StatusImportacao status;
+    private String mensagem;
+
+    public enum StatusImportacao {
+        CRIADO, CONFLITO, ERRO
+    }
+}
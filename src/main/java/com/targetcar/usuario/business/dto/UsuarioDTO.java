@@ -1,5 +1,6 @@
 package com.targetcar.usuario.business.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import java.util.List;
@@ -13,7 +14,11 @@ public class UsuarioDTO {
 
     private String nome;
     private String email;
+    // Aceita na entrada (cadastro, login, atualização), nunca devolvida nas respostas
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String senha;
     private List<EnderecoDTO> enderecos;
     private List<TelefoneDTO> telefones;
+    // Versão lida pelo cliente; na atualização, se informada, precisa ser a atual (senão 409)
+    private Long versao;
 }
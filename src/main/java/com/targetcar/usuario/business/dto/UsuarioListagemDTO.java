@@ -0,0 +1,22 @@
+package com.targetcar.usuario.business.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+// Item da listagem de usuários: enderecos e telefones só aparecem quando pedidos
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UsuarioListagemDTO {
+
+    private Long id;
+    private String nome;
+    private String email;
+    private List<EnderecoDTO> enderecos;
+    private List<TelefoneDTO> telefones;
+}
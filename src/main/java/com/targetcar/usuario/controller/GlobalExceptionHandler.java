@@ -2,8 +2,11 @@ package com.targetcar.usuario.controller;
 
 import com.targetcar.usuario.infrastructure.exceptions.ConflictException;
 import com.targetcar.usuario.infrastructure.exceptions.ResourceNotFoundException;
+import com.targetcar.usuario.infrastructure.exceptions.ServiceUnavailableException;
 import com.targetcar.usuario.infrastructure.exceptions.UnauthorizedException;
 import com.targetcar.usuario.infrastructure.exceptions.IllegalArgumentException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -22,6 +25,12 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
+    // @Version: o registro mudou entre a leitura e o UPDATE desta requisição
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex){
+        return new ResponseEntity<>("O registro foi alterado por outra requisição", HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<String> handleUnauthorizedException(UnauthorizedException ex){
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.UNAUTHORIZED);
@@ -30,4 +39,11 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex){
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<String> handleServiceUnavailableException(ServiceUnavailableException ex){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
 }
\ No newline at end of file
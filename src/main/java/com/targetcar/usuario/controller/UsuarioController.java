@@ -1,21 +1,34 @@
 package com.targetcar.usuario.controller;
 
+import com.targetcar.usuario.business.ImportacaoUsuarioService;
 import com.targetcar.usuario.business.UsuarioService;
 import com.targetcar.usuario.business.ViaCepService;
 import com.targetcar.usuario.business.dto.EnderecoDTO;
+import com.targetcar.usuario.business.dto.PaginaUsuariosDTO;
+import com.targetcar.usuario.business.dto.ResultadoCepDTO;
+import com.targetcar.usuario.business.dto.ResultadoExclusaoDTO;
 import com.targetcar.usuario.business.dto.TelefoneDTO;
 import com.targetcar.usuario.business.dto.UsuarioDTO;
 import com.targetcar.usuario.infrastructure.clients.ViaCepDTO;
 import com.targetcar.usuario.infrastructure.security.SecurityConfig;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/usuario")
 @RequiredArgsConstructor
@@ -25,6 +38,7 @@ public class UsuarioController {
 
     private final UsuarioService usuarioService;
     private final ViaCepService viaCepService;
+    private final ImportacaoUsuarioService importacaoUsuarioService;
 
     @PostMapping
     @Operation(summary = "Salvar um Usuários", description = "Salvar um Usuário")
@@ -34,6 +48,22 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarioService.salvaUsuario(usuarioDTO));
     }
 
+    @PostMapping(value = "/importacao", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Importar usuários em massa",
+            description = "Recebe um usuário por linha (NDJSON) e devolve, também em NDJSON, o resultado de cada linha à medida que os lotes são gravados. " +
+                    "Restrito aos e-mails configurados em seguranca.administradores"
+    )
+    @ApiResponse(responseCode = "200", description = "Importação processada; o status de cada linha vem no corpo")
+    @ApiResponse(responseCode = "401", description = "Não autorizado – token inválido ou ausente")
+    @ApiResponse(responseCode = "403", description = "Usuário fora de seguranca.administradores")
+    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    public void importaUsuarios(InputStream corpo, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        importacaoUsuarioService.importar(corpo, response.getOutputStream());
+    }
+
     @PostMapping("/login")
     @Operation(summary = "Autenticar usuário",
             description = "Autentica um usuário com e-mail e senha. Retorna uma mensagem ou token em caso de sucesso."
@@ -50,11 +80,37 @@ public class UsuarioController {
             summary = "Buscar usuário por e-mail",
             description = "Retorna os dados de um usuário com base no e-mail fornecido como parâmetro"
     )
-    @ApiResponse(responseCode = "200", description = "Usuário encontrado com sucesso")
+    @ApiResponse(responseCode = "200", description = "Usuário encontrado com sucesso",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioDTO.class)))
     @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
-    public ResponseEntity<UsuarioDTO> buscaUsuarioPorEmail(@RequestParam("email") String email) {
-        return ResponseEntity.ok(usuarioService.buscarUsuarioPorEmail(email));
+    public void buscaUsuarioPorEmail(@RequestParam("email") String email, HttpServletResponse response) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        usuarioService.escreverUsuarioPorEmail(email, response.getOutputStream());
+    }
+
+    @GetMapping("/lista")
+    @Operation(
+            summary = "Listar usuários",
+            description = "Lista os usuários em ordem de id, uma página por vez. Para a página seguinte, envie em 'apos' " +
+                    "o valor de 'proximo' da resposta. Endereços e telefones só são incluídos quando pedidos. " +
+                    "Restrito aos e-mails configurados em seguranca.administradores"
+    )
+    @ApiResponse(responseCode = "200", description = "Página de usuários")
+    @ApiResponse(responseCode = "400", description = "Tamanho de página inválido")
+    @ApiResponse(responseCode = "401", description = "Não autorizado – token inválido ou ausente")
+    @ApiResponse(responseCode = "403", description = "Usuário fora de seguranca.administradores")
+    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    public ResponseEntity<PaginaUsuariosDTO> listaUsuarios(
+            @RequestParam(value = "apos", defaultValue = "0") long apos,
+            @RequestParam(value = "tamanho", defaultValue = "50") int tamanho,
+            @RequestParam(value = "estado", required = false) String estado,
+            @RequestParam(value = "cidade", required = false) String cidade,
+            @RequestParam(value = "enderecos", defaultValue = "false") boolean incluirEnderecos,
+            @RequestParam(value = "telefones", defaultValue = "false") boolean incluirTelefones) {
+        return ResponseEntity.ok(usuarioService.listarUsuarios(apos, tamanho, estado, cidade,
+                incluirEnderecos, incluirTelefones));
     }
 
     @DeleteMapping("/{email}")
@@ -70,40 +126,61 @@ public class UsuarioController {
         return ResponseEntity.ok().build();
     }
 
-    @PutMapping
+    @PostMapping("/exclusao")
+    @Operation(
+            summary = "Excluir usuários em lote",
+            description = "Remove, em uma única transação, os usuários dos e-mails informados (até 10000), " +
+                    "com endereços e telefones. Usado pelas rotinas de expurgo; e-mails não cadastrados são ignorados. " +
+                    "Restrito aos e-mails configurados em seguranca.administradores"
+    )
+    @ApiResponse(responseCode = "200", description = "Lote excluído; retorna quantos e-mails foram recebidos e quantos usuários foram excluídos")
+    @ApiResponse(responseCode = "400", description = "Lista vazia ou maior que o permitido")
+    @ApiResponse(responseCode = "403", description = "Usuário fora de seguranca.administradores")
+    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    public ResponseEntity<ResultadoExclusaoDTO> excluiUsuariosEmLote(@RequestBody List<String> emails) {
+        return ResponseEntity.ok(usuarioService.excluirUsuariosPorEmails(emails));
+    }
+
+    @RequestMapping(method = {RequestMethod.PUT, RequestMethod.PATCH})
     @Operation(
             summary = "Atualizar dados do usuário",
-            description = "Atualiza os dados do usuário autenticado. É necessário enviar o token no cabeçalho Authorization."
+            description = "Atualiza os dados do usuário autenticado. É necessário enviar o token no cabeçalho Authorization. " +
+                    "Só os campos informados são alterados; com \"versao\" a atualização só é aplicada se o registro não mudou desde a leitura"
     )
     @ApiResponse(responseCode = "200", description = "Usuário atualizado com sucesso")
     @ApiResponse(responseCode = "401", description = "Não autorizado – token inválido ou ausente")
     @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+    @ApiResponse(responseCode = "409", description = "E-mail já cadastrado ou registro alterado por outra requisição")
     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     public ResponseEntity<UsuarioDTO> atualizDadoUsuario(@RequestBody UsuarioDTO dto,
                                                          @RequestHeader("Authorization") String token) {
         return ResponseEntity.ok(usuarioService.atualizaDadosUsuario(token, dto));
     }
 
-    @PutMapping("/endereco")
+    @RequestMapping(value = "/endereco", method = {RequestMethod.PUT, RequestMethod.PATCH})
     @Operation(
             summary = "Atualizar endereço do usuário",
-            description = "Atualiza os dados de endereço de um usuário com base no ID fornecido como parâmetro"
+            description = "Atualiza os dados de endereço de um usuário com base no ID fornecido como parâmetro. " +
+                    "Só os campos informados são alterados; com \"versao\" a atualização só é aplicada se o registro não mudou desde a leitura"
     )
     @ApiResponse(responseCode = "200", description = "Endereço atualizado com sucesso")
     @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+    @ApiResponse(responseCode = "409", description = "Registro alterado por outra requisição")
     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     public ResponseEntity<EnderecoDTO> atualizaEndereco(@RequestBody EnderecoDTO dto,
                                                         @RequestParam("id") Long id){
         return ResponseEntity.ok(usuarioService.atualizaEndereco(id, dto));
     }
 
-    @PutMapping("/telefone")
+    @RequestMapping(value = "/telefone", method = {RequestMethod.PUT, RequestMethod.PATCH})
     @Operation(
             summary = "Atualizar telefone do usuário",
-            description = "Atualiza os dados de telefone de um usuário com base no ID fornecido como parâmetro"
+            description = "Atualiza os dados de telefone de um usuário com base no ID fornecido como parâmetro. " +
+                    "Só os campos informados são alterados; com \"versao\" a atualização só é aplicada se o registro não mudou desde a leitura"
     )
     @ApiResponse(responseCode = "200", description = "Telefone atualizado com sucesso")
     @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+    @ApiResponse(responseCode = "409", description = "Registro alterado por outra requisição")
     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
     public ResponseEntity<TelefoneDTO> atualizaTelefone(@RequestBody TelefoneDTO dto,
                                                         @RequestParam("id") Long id){
@@ -145,10 +222,27 @@ public class UsuarioController {
     @ApiResponse(responseCode = "400", description = "CEP inválido")
     @ApiResponse(responseCode = "404", description = "Endereço não encontrado para o CEP informado")
     @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
-    public ResponseEntity<ViaCepDTO> buscaDadosDeEndereco(
+    @ApiResponse(responseCode = "503", description = "Serviço de CEP indisponível no momento")
+    public CompletableFuture<ResponseEntity<ViaCepDTO>> buscaDadosDeEndereco(
             @Parameter(description = "CEP no formato 00000000", required = true)
             @PathVariable("cep") String cep) {
-        return ResponseEntity.ok(viaCepService.buscarDadosEndereco(cep));
+        // Processamento assíncrono: a thread do servidor é liberada enquanto o ViaCEP responde
+        return viaCepService.buscarDadosEnderecoAsync(cep).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/endereco/lote")
+    @Operation(
+            summary = "Buscar dados de endereço de vários CEPs",
+            description = "Consulta uma lista de CEPs de uma vez. Retorna um mapa com o resultado de cada CEP informado; " +
+                    "CEPs inválidos (inclusive entradas nulas, devolvidas na chave \"null\"), inexistentes ou com falha na consulta " +
+                    "não impedem o retorno dos demais"
+    )
+    @ApiResponse(responseCode = "200", description = "Lote processado; o status de cada CEP vem no próprio resultado")
+    @ApiResponse(responseCode = "400", description = "Lote maior que o permitido")
+    @ApiResponse(responseCode = "500", description = "Erro interno no servidor")
+    public CompletableFuture<ResponseEntity<Map<String, ResultadoCepDTO>>> buscaDadosDeEnderecoEmLote(
+            @RequestBody List<String> ceps) {
+        return viaCepService.buscarDadosEnderecoEmLote(ceps).thenApply(ResponseEntity::ok);
     }
 
 }
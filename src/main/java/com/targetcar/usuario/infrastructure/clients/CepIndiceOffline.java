@@ -0,0 +1,243 @@
+package com.targetcar.usuario.infrastructure.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+// Base local de CEPs: um arquivo de importação (JSON lines com os campos do ViaCepDTO) é convertido em um índice
+// binário ordenado pelo CEP, mapeado em memória e consultado por busca binária.
+//
+// Formato do índice:
+//   int MAGIC | int quantidade | int[quantidade] ceps ordenados | int[quantidade + 1] posições dos registros | registros
+// Cada registro guarda os campos de CAMPOS na ordem, como tamanho em 2 bytes sem sinal (0xFFFF para nulo)
+// seguido dos bytes UTF-8. Uma linha com campo de NULO bytes ou mais não entra no índice.
+@Slf4j
+@Component
+public class CepIndiceOffline {
+
+    private static final int MAGIC = 0x43455031; // "CEP1"
+    private static final int CABECALHO = 8;
+    private static final int CAMPOS = 12;
+    private static final int NULO = 0xFFFF;
+
+    private final ObjectMapper objectMapper;
+    private final String arquivoImportacao;
+    private final String arquivoIndice;
+
+    private MappedByteBuffer indice;
+    private int quantidade;
+    private int inicioPosicoes;
+    private int inicioRegistros;
+
+    public CepIndiceOffline(ObjectMapper objectMapper,
+                            @Value("${viacep.offline.importacao:}") String arquivoImportacao,
+                            @Value("${viacep.offline.indice:}") String arquivoIndice) {
+        this.objectMapper = objectMapper;
+        this.arquivoImportacao = arquivoImportacao;
+        this.arquivoIndice = arquivoIndice;
+    }
+
+    @PostConstruct
+    void carregar() {
+        if (arquivoIndice.isBlank()) {
+            return;
+        }
+        Path indicePath = Path.of(arquivoIndice);
+        try {
+            if (!arquivoImportacao.isBlank() && precisaReconstruir(Path.of(arquivoImportacao), indicePath)) {
+                construirIndice(Path.of(arquivoImportacao), indicePath);
+            }
+            if (Files.exists(indicePath)) {
+                mapear(indicePath);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao carregar a base offline de CEPs " + arquivoIndice, e);
+        }
+    }
+
+    public boolean disponivel() {
+        return indice != null;
+    }
+
+    // Recebe o CEP normalizado como inteiro (00000000 a 99999999).
+    // A busca binária lê direto do arquivo mapeado; só o resultado encontrado gera objetos
+    public Optional<ViaCepDTO> buscar(int cep) {
+        if (indice == null) {
+            return Optional.empty();
+        }
+        int inicio = 0;
+        int fim = quantidade - 1;
+        while (inicio <= fim) {
+            int meio = (inicio + fim) >>> 1;
+            int atual = indice.getInt(CABECALHO + meio * Integer.BYTES);
+            if (atual < cep) {
+                inicio = meio + 1;
+            } else if (atual > cep) {
+                fim = meio - 1;
+            } else {
+                return Optional.of(lerRegistro(cep, indice.getInt(inicioPosicoes + meio * Integer.BYTES)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private ViaCepDTO lerRegistro(int cep, int posicao) {
+        String[] campos = new String[CAMPOS];
+        int cursor = inicioRegistros + posicao;
+        for (int i = 0; i < CAMPOS; i++) {
+            int tamanho = indice.getShort(cursor) & 0xFFFF;
+            cursor += Short.BYTES;
+            if (tamanho != NULO) {
+                byte[] bytes = new byte[tamanho];
+                indice.get(cursor, bytes);
+                campos[i] = new String(bytes, StandardCharsets.UTF_8);
+                cursor += tamanho;
+            }
+        }
+        return ViaCepDTO.builder()
+                .cep(CepNormalizador.formatado(cep))
+                .logradouro(campos[0])
+                .complemento(campos[1])
+                .unidade(campos[2])
+                .bairro(campos[3])
+                .localidade(campos[4])
+                .uf(campos[5])
+                .estado(campos[6])
+                .regiao(campos[7])
+                .ibge(campos[8])
+                .gia(campos[9])
+                .ddd(campos[10])
+                .siafi(campos[11])
+                .build();
+    }
+
+    private void mapear(Path indicePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(indicePath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Arquivo não é um índice de CEPs: " + indicePath);
+            }
+            this.quantidade = buffer.getInt(4);
+            this.inicioPosicoes = CABECALHO + quantidade * Integer.BYTES;
+            this.inicioRegistros = inicioPosicoes + (quantidade + 1) * Integer.BYTES;
+            this.indice = buffer;
+        }
+        log.info("Base offline de CEPs carregada: {} CEPs em {}", quantidade, indicePath);
+    }
+
+    private boolean precisaReconstruir(Path importacao, Path indicePath) throws IOException {
+        return !Files.exists(indicePath)
+                || Files.getLastModifiedTime(importacao).compareTo(Files.getLastModifiedTime(indicePath)) > 0;
+    }
+
+    // Lê o arquivo de importação, ordena pelo CEP e grava o índice em um arquivo temporário
+    // que só substitui o índice atual quando estiver completo
+    void construirIndice(Path importacao, Path indicePath) throws IOException {
+        List<RegistroCep> registros = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(importacao, StandardCharsets.UTF_8)) {
+            String linha;
+            int numeroLinha = 0;
+            while ((linha = reader.readLine()) != null) {
+                numeroLinha++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                ViaCepDTO dto = objectMapper.readValue(linha, ViaCepDTO.class);
+                int cep = CepNormalizador.paraChave(dto.getCep());
+                if (cep == CepNormalizador.INVALIDO) {
+                    continue;
+                }
+                byte[] dados = serializar(dto);
+                if (dados == null) {
+                    log.warn("Linha {} de {} ignorada: campo com {} bytes ou mais", numeroLinha, importacao, NULO);
+                    continue;
+                }
+                registros.add(new RegistroCep(cep, dados));
+            }
+        }
+        registros.sort(Comparator.comparingInt(RegistroCep::cep));
+        registros = removerDuplicados(registros);
+
+        Path temporario = Files.createTempFile(indicePath.toAbsolutePath().getParent(), "cep", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(registros.size());
+            for (RegistroCep registro : registros) {
+                out.writeInt(registro.cep());
+            }
+            int posicao = 0;
+            for (RegistroCep registro : registros) {
+                out.writeInt(posicao);
+                posicao += registro.dados().length;
+            }
+            out.writeInt(posicao);
+            for (RegistroCep registro : registros) {
+                out.write(registro.dados());
+            }
+        }
+        Files.move(temporario, indicePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Índice offline de CEPs gerado com {} CEPs a partir de {}", registros.size(), importacao);
+    }
+
+    // Mantém o último registro de cada CEP repetido no arquivo de importação
+    private List<RegistroCep> removerDuplicados(List<RegistroCep> ordenados) {
+        List<RegistroCep> unicos = new ArrayList<>(ordenados.size());
+        for (RegistroCep registro : ordenados) {
+            if (!unicos.isEmpty() && unicos.get(unicos.size() - 1).cep() == registro.cep()) {
+                unicos.set(unicos.size() - 1, registro);
+            } else {
+                unicos.add(registro);
+            }
+        }
+        return unicos;
+    }
+
+    // Retorna null quando algum campo não cabe no tamanho de 2 bytes, em vez de cortar o texto no meio de um caractere
+    private byte[] serializar(ViaCepDTO dto) {
+        String[] campos = {dto.getLogradouro(), dto.getComplemento(), dto.getUnidade(), dto.getBairro(),
+                dto.getLocalidade(), dto.getUf(), dto.getEstado(), dto.getRegiao(), dto.getIbge(), dto.getGia(),
+                dto.getDdd(), dto.getSiafi()};
+        int tamanhoTotal = 0;
+        byte[][] bytes = new byte[CAMPOS][];
+        for (int i = 0; i < CAMPOS; i++) {
+            bytes[i] = campos[i] != null ? campos[i].getBytes(StandardCharsets.UTF_8) : null;
+            if (bytes[i] != null && bytes[i].length >= NULO) {
+                return null;
+            }
+            tamanhoTotal += Short.BYTES + (bytes[i] != null ? bytes[i].length : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(tamanhoTotal);
+        for (byte[] campo : bytes) {
+            if (campo == null) {
+                buffer.putShort((short) NULO);
+            } else {
+                buffer.putShort((short) campo.length);
+                buffer.put(campo);
+            }
+        }
+        return buffer.array();
+    }
+
+    private record RegistroCep(int cep, byte[] dados) {
+    }
+}
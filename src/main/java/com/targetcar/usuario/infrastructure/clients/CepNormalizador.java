@@ -0,0 +1,58 @@
+package com.targetcar.usuario.infrastructure.clients;
+
+// Normalização canônica do CEP, usada pela consulta, pelo cache e pela base offline.
+// Aceita 8 dígitos com espaços e hífens em qualquer posição ("01310100", "01310-100", " 01310 - 100 ")
+// e devolve o CEP como inteiro, percorrendo a entrada uma única vez e sem alocar objetos
+public final class CepNormalizador {
+
+    public static final int INVALIDO = -1;
+
+    private static final int DIGITOS = 8;
+
+    private CepNormalizador() {
+    }
+
+    // Chave inteira do CEP (0 a 99999999) ou INVALIDO
+    public static int paraChave(CharSequence cep) {
+        if (cep == null) {
+            return INVALIDO;
+        }
+        int valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < cep.length(); i++) {
+            char c = cep.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > DIGITOS) {
+                    return INVALIDO;
+                }
+                valor = valor * 10 + (c - '0');
+            } else if (c != ' ' && c != '-') {
+                return INVALIDO;
+            }
+        }
+        return digitos == DIGITOS ? valor : INVALIDO;
+    }
+
+    // CEP com 8 dígitos, sem separador (00000000): chave do cache e da tabela tb_cep_cache
+    public static String paraTexto(int chave) {
+        char[] digitos = new char[DIGITOS];
+        preencher(digitos, 0, DIGITOS, chave);
+        return new String(digitos);
+    }
+
+    // CEP no formato devolvido pelo ViaCEP (00000-000)
+    public static String formatado(int chave) {
+        char[] digitos = new char[DIGITOS + 1];
+        preencher(digitos, 6, 3, chave);
+        digitos[5] = '-';
+        preencher(digitos, 0, 5, chave / 1000);
+        return new String(digitos);
+    }
+
+    private static void preencher(char[] destino, int inicio, int quantidade, int valor) {
+        for (int i = inicio + quantidade - 1; i >= inicio; i--) {
+            destino[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.targetcar.usuario.infrastructure.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.targetcar.usuario.infrastructure.exceptions.IllegalArgumentException;
+import com.targetcar.usuario.infrastructure.exceptions.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Cliente não bloqueante do ViaCEP (java.net.http): nenhuma thread fica parada esperando a resposta.
+// As chamadas usam o mesmo bulkhead do ViaCepResilienteClient (viaCepBulkhead), então os dois caminhos juntos
+// respeitam um único viacep.bulkhead.max-concorrentes. Sem permissão livre a consulta aguarda em uma fila
+// (sem ocupar thread) de até viacep.async.max-pendentes consultas, acima disso falha com 503. A fila anda
+// quando qualquer chamada ao ViaCEP termina, síncrona ou não.
+// Sem hedge aqui: este caminho atende o lote de CEPs, em que uma segunda chamada por CEP lento dobraria a
+// carga justamente quando o ViaCEP está lento; o hedge continua só na consulta síncrona, dentro da mesma permissão.
+// Usa a mesma viacep.url do Feign, o que permite apontar para um servidor HTTP local de testes.
+@Component
+public class ViaCepAsyncClient {
+
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper;
+    private final CircuitBreaker circuitBreaker;
+    private final String url;
+    private final Duration readTimeout;
+    private final Bulkhead bulkhead;
+    private final int maxPendentes;
+    private final AtomicInteger pendentes = new AtomicInteger();
+    private final Queue<Pendente> filaPendentes = new ConcurrentLinkedQueue<>();
+    private final MeterRegistry meterRegistry;
+
+    public ViaCepAsyncClient(ObjectMapper objectMapper,
+                             CircuitBreaker viaCepCircuitBreaker,
+                             Bulkhead viaCepBulkhead,
+                             MeterRegistry meterRegistry,
+                             @Qualifier("executorIo") ExecutorService executor,
+                             @Value("${viacep.url}") String url,
+                             @Value("${viacep.connect-timeout:2000}") long connectTimeout,
+                             @Value("${viacep.read-timeout:3000}") long readTimeout,
+                             @Value("${viacep.async.max-pendentes:1000}") int maxPendentes) {
+        this.objectMapper = objectMapper;
+        this.circuitBreaker = viaCepCircuitBreaker;
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        this.readTimeout = Duration.ofMillis(readTimeout);
+        this.bulkhead = viaCepBulkhead;
+        this.maxPendentes = maxPendentes;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("usuario.viacep.async.pendentes", pendentes, AtomicInteger::get).register(meterRegistry);
+        // Permissão devolvida por qualquer um dos clientes libera a próxima consulta da fila
+        bulkhead.getEventPublisher().onCallFinished(evento -> drenar());
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .executor(executor)
+                .build();
+    }
+
+    // O futuro falha com ServiceUnavailableException quando o ViaCEP não responde, está lento demais,
+    // o circuito está aberto ou a fila de espera está cheia
+    public CompletableFuture<ViaCepDTO> buscaDadosDeEndereco(String cep) {
+        return comLimite(() -> circuitBreaker.executeCompletionStage(() -> chamar(cep)).toCompletableFuture())
+                .exceptionallyCompose(erro -> CompletableFuture.failedFuture(traduzir(erro)));
+    }
+
+    private CompletableFuture<ViaCepDTO> chamar(String cep) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/ws/" + cep + "/json/"))
+                .timeout(readTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        Timer.Sample inicio = Timer.start(meterRegistry);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, erro) -> inicio.stop(Timer.builder("usuario.viacep.async")
+                        .tag("status", erro != null ? "erro" : String.valueOf(response.statusCode()))
+                        .register(meterRegistry)))
+                .thenApply(this::converter);
+    }
+
+    private ViaCepDTO converter(HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        if (status >= 500) {
+            throw new ServiceUnavailableException("Serviço de CEP indisponível no momento");
+        }
+        if (status >= 400) {
+            throw new IllegalArgumentException("CEP recusado pelo serviço de CEP, status " + status);
+        }
+        try {
+            return objectMapper.readValue(response.body(), ViaCepDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Executa a chamada se houver permissão livre no bulkhead; caso contrário a coloca na fila.
+    // tryAcquirePermission espera até viacep.bulkhead.espera-maxima, que deve ficar em PT0S para não bloquear aqui
+    private <T> CompletableFuture<T> comLimite(Supplier<CompletableFuture<T>> chamada) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        Runnable tarefa = () -> {
+            CompletableFuture<T> emAndamento;
+            try {
+                emAndamento = chamada.get();
+            } catch (RuntimeException e) {
+                emAndamento = CompletableFuture.failedFuture(e);
+            }
+            emAndamento.whenComplete((valor, erro) -> {
+                // onComplete devolve a permissão e publica o evento que drena a fila
+                bulkhead.onComplete();
+                if (erro != null) {
+                    resultado.completeExceptionally(erro);
+                } else {
+                    resultado.complete(valor);
+                }
+            });
+        };
+
+        if (bulkhead.tryAcquirePermission()) {
+            tarefa.run();
+            return resultado;
+        }
+        if (pendentes.incrementAndGet() > maxPendentes) {
+            pendentes.decrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Muitas consultas de CEP em andamento"));
+        }
+        filaPendentes.add(new Pendente(tarefa, resultado));
+        // Uma chamada pode ter terminado entre o tryAcquirePermission e a inclusão na fila
+        drenar();
+        return resultado;
+    }
+
+    private void drenar() {
+        while (!filaPendentes.isEmpty() && bulkhead.tryAcquirePermission()) {
+            Pendente proxima = filaPendentes.poll();
+            if (proxima == null) {
+                bulkhead.releasePermission();
+                continue;
+            }
+            pendentes.decrementAndGet();
+            // Roda fora da pilha atual: com o circuito aberto as chamadas falham na hora
+            // e a drenagem recursiva da fila poderia estourar a pilha
+            try {
+                executor.execute(proxima.tarefa());
+            } catch (RuntimeException e) {
+                // Executor de I/O saturado: a consulta falha com 503 e a permissão volta sem passar pelo evento
+                bulkhead.releasePermission();
+                proxima.resultado().completeExceptionally(e);
+            }
+        }
+    }
+
+    private static RuntimeException traduzir(Throwable erro) {
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+        if (causa instanceof ServiceUnavailableException || causa instanceof IllegalArgumentException) {
+            return (RuntimeException) causa;
+        }
+        if (causa instanceof CallNotPermittedException || causa instanceof IOException) {
+            // IOException inclui os timeouts de conexão e de leitura (HttpTimeoutException)
+            return new ServiceUnavailableException("Serviço de CEP indisponível no momento", causa);
+        }
+        return new ServiceUnavailableException("Erro ao consultar o CEP", causa);
+    }
+
+    private record Pendente(Runnable tarefa, CompletableFuture<?> resultado) {
+    }
+}
@@ -0,0 +1,172 @@
+package com.targetcar.usuario.infrastructure.clients;
+
+import com.targetcar.usuario.infrastructure.exceptions.ServiceUnavailableException;
+import com.targetcar.usuario.infrastructure.metricas.TemposRequisicao;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Acesso ao ViaCEP com limite de chamadas simultâneas (bulkhead viaCepBulkhead, o mesmo do ViaCepAsyncClient),
+// circuit breaker e, opcionalmente, uma segunda chamada (hedge) quando a primeira passa do percentil de latência
+// configurado. O hedge roda dentro da permissão da chamada original.
+// Os timeouts de conexão e leitura do Feign ficam em application.properties (viacep.connect-timeout / viacep.read-timeout)
+// e o circuit breaker é o bean viaCepCircuitBreaker (ViaCepConfig).
+@Component
+public class ViaCepResilienteClient {
+
+    private final ViaCepClient client;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final boolean hedgeHabilitado;
+    private final double hedgePercentil;
+    private final long hedgeAtrasoMinimoNanos;
+    private final ExecutorService executor;
+    private final JanelaLatencia latencias = new JanelaLatencia(256);
+
+    public ViaCepResilienteClient(ViaCepClient client,
+                                  CircuitBreaker viaCepCircuitBreaker,
+                                  Bulkhead viaCepBulkhead,
+                                  @Qualifier("executorIo") ExecutorService executor,
+                                  @Value("${viacep.hedge.habilitado:false}") boolean hedgeHabilitado,
+                                  @Value("${viacep.hedge.percentil:0.95}") double hedgePercentil,
+                                  @Value("${viacep.hedge.atraso-minimo:PT0.05S}") Duration hedgeAtrasoMinimo) {
+        this.client = client;
+        this.bulkhead = viaCepBulkhead;
+        this.circuitBreaker = viaCepCircuitBreaker;
+        this.hedgeHabilitado = hedgeHabilitado;
+        this.hedgePercentil = hedgePercentil;
+        this.hedgeAtrasoMinimoNanos = hedgeAtrasoMinimo.toNanos();
+        this.executor = executor;
+    }
+
+    // Lança ServiceUnavailableException quando o ViaCEP não responde, está lento demais ou o circuito está aberto
+    public ViaCepDTO buscaDadosDeEndereco(String cep) {
+        try {
+            return TemposRequisicao.medir("viacep", () ->
+                    circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, () -> chamar(cep))));
+        } catch (CallNotPermittedException | BulkheadFullException | RetryableException
+                 | FeignException.FeignServerException e) {
+            throw new ServiceUnavailableException("Serviço de CEP indisponível no momento", e);
+        }
+    }
+
+    private ViaCepDTO chamar(String cep) {
+        if (!hedgeHabilitado) {
+            return chamadaCronometrada(cep);
+        }
+        CompletableFuture<ViaCepDTO> original = CompletableFuture.supplyAsync(() -> chamadaCronometrada(cep), executor);
+        CompletableFuture<ViaCepDTO> resultado;
+        try {
+            return original.get(atrasoHedge(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            CompletableFuture<ViaCepDTO> hedge = CompletableFuture.supplyAsync(() -> chamadaCronometrada(cep), executor);
+            resultado = primeiraComSucesso(original, hedge);
+        } catch (ExecutionException e) {
+            throw propagar(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Consulta de CEP interrompida", e);
+        }
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            throw propagar(e.getCause());
+        }
+    }
+
+    private ViaCepDTO chamadaCronometrada(String cep) {
+        long inicio = System.nanoTime();
+        ViaCepDTO dto = client.buscaDadosDeEndereco(cep);
+        latencias.registrar(System.nanoTime() - inicio);
+        return dto;
+    }
+
+    // Espera o percentil de latência observado antes de disparar a segunda chamada
+    private long atrasoHedge() {
+        return Math.max(latencias.percentil(hedgePercentil), hedgeAtrasoMinimoNanos);
+    }
+
+    // Completa com a primeira chamada bem-sucedida; só falha se as duas falharem
+    private static CompletableFuture<ViaCepDTO> primeiraComSucesso(CompletableFuture<ViaCepDTO> original,
+                                                                   CompletableFuture<ViaCepDTO> hedge) {
+        CompletableFuture<ViaCepDTO> resultado = new CompletableFuture<>();
+        AtomicInteger falhas = new AtomicInteger();
+        for (CompletableFuture<ViaCepDTO> chamada : List.of(original, hedge)) {
+            chamada.whenComplete((dto, erro) -> {
+                if (erro == null) {
+                    resultado.complete(dto);
+                } else if (falhas.incrementAndGet() == 2) {
+                    resultado.completeExceptionally(erro);
+                }
+            });
+        }
+        return resultado;
+    }
+
+    private static RuntimeException propagar(Throwable erro) {
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+        if (causa instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new ServiceUnavailableException("Erro ao consultar o CEP", causa);
+    }
+
+    // Últimas latências observadas em um buffer circular; o percentil é recalculado a cada 32 registros
+    private static class JanelaLatencia {
+
+        private final AtomicLongArray amostras;
+        private final AtomicLong total = new AtomicLong();
+        private volatile double percentilCalculado = -1;
+        private volatile long valorPercentil;
+
+        JanelaLatencia(int tamanho) {
+            this.amostras = new AtomicLongArray(tamanho);
+        }
+
+        void registrar(long nanos) {
+            long n = total.getAndIncrement();
+            amostras.set((int) (n % amostras.length()), nanos);
+            if (n % 32 == 0) {
+                percentilCalculado = -1;
+            }
+        }
+
+        long percentil(double percentil) {
+            if (percentilCalculado == percentil) {
+                return valorPercentil;
+            }
+            int quantidade = (int) Math.min(total.get(), amostras.length());
+            if (quantidade == 0) {
+                return 0;
+            }
+            long[] copia = new long[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                copia[i] = amostras.get(i);
+            }
+            Arrays.sort(copia);
+            int posicao = (int) Math.ceil(percentil * quantidade) - 1;
+            valorPercentil = copia[Math.max(0, Math.min(quantidade - 1, posicao))];
+            percentilCalculado = percentil;
+            return valorPercentil;
+        }
+    }
+}
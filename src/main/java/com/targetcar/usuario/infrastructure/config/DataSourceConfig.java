@@ -0,0 +1,90 @@
+package com.targetcar.usuario.infrastructure.config;
+
+import com.targetcar.usuario.infrastructure.datasource.RoteamentoDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Roteamento leitura/escrita, ligado por datasource.roteamento.habilitado=true.
+// O primário continua configurado por spring.datasource.* e spring.datasource.hikari.*;
+// cada réplica é um pool Hikari próprio em datasource.replicas[n].* (jdbc-url, maximum-pool-size, connection-timeout...).
+// Sem a propriedade, o DataSource é o do auto-configure do Spring Boot
+@Configuration
+@ConditionalOnProperty(name = "datasource.roteamento.habilitado", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(HikariDataSource dataSourcePrimario,
+                                                     Environment environment,
+                                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                                     @Value("${datasource.roteamento.espera-replica-indisponivel:PT30S}") Duration espera,
+                                                     @Value("${datasource.roteamento.replica-connection-timeout:PT1S}") Duration connectionTimeoutReplica) {
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> configuradas = binder
+                .bind("datasource.replicas", Bindable.listOf(HikariDataSource.class))
+                .orElse(List.of());
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < configuradas.size(); i++) {
+            HikariDataSource replica = configuradas.get(i);
+            if (replica.getPoolName() == null) {
+                replica.setPoolName("replica-" + i);
+            }
+            // Credenciais do primário quando a réplica não define as suas
+            if (replica.getUsername() == null) {
+                replica.setUsername(dataSourcePrimario.getUsername());
+                replica.setPassword(dataSourcePrimario.getPassword());
+            }
+            // Sem connection-timeout próprio a réplica não usa os 30 s padrão do Hikari: fora do ar, cada leitura
+            // roteada para ela esperaria esse tempo antes de cair no primário
+            if (!binder.bind("datasource.replicas[" + i + "].connection-timeout", Bindable.of(Duration.class)).isBound()) {
+                replica.setConnectionTimeout(connectionTimeoutReplica.toMillis());
+            }
+            // Réplica fora do ar na subida não impede a aplicação de iniciar: o pool só abre na primeira leitura
+            replica.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registro ->
+                    replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registro)));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new RoteamentoDataSource(dataSourcePrimario, replicas, espera);
+    }
+
+    // DataSource usado por JPA, JdbcTemplate e spring.sql.init
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(roteamentoDataSource);
+        // Padrões do Hikari/Postgres informados aqui para o proxy não abrir uma conexão só para descobri-los
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+}
@@ -0,0 +1,67 @@
+package com.targetcar.usuario.infrastructure.config;
+
+import com.targetcar.usuario.infrastructure.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    // Executor para tarefas que passam a maior parte do tempo esperando I/O (ViaCEP, banco): cargas do cache de CEP,
+    // hedge do ViaCEP e callbacks do HttpClient. Com spring.threads.virtual.enabled=true cada tarefa roda em uma
+    // virtual thread; sem elas o pool é limitado (executor.io.threads e executor.io.tamanho-fila), para um ViaCEP
+    // lento não criar uma thread de plataforma por chamada em espera. Com tudo ocupado a tarefa é recusada com
+    // ServiceUnavailableException (503). O número de chamadas simultâneas ao ViaCEP continua limitado pelo bulkhead
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService executorIo(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                      @Value("${executor.io.threads:64}") int threads,
+                                      @Value("${executor.io.tamanho-fila:256}") int tamanhoFila,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        if (virtualThreads) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "io-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila), threadFactory,
+                (tarefa, pool) -> {
+                    throw new ServiceUnavailableException("Muitas consultas em andamento");
+                });
+        // Threads ociosas são encerradas, como no pool sem limite que este substitui
+        executor.allowCoreThreadTimeOut(true);
+        meterRegistry.ifAvailable(registro -> ExecutorServiceMetrics.monitor(registro, executor, "io"));
+        return executor;
+    }
+
+    // Threads que criptografam as senhas da importação em massa (CPU, não I/O): quantidade fixa, separada do pool
+    // de senhas dos logins. Daemon e encerrado pelo contexto, para não segurar a JVM no desligamento
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService executorSenhasImportacao(@Value("${usuario.importacao.threads-senha:4}") int threads,
+                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "importacao-senha-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+        meterRegistry.ifAvailable(registro -> ExecutorServiceMetrics.monitor(registro, executor, "importacao-senha"));
+        return executor;
+    }
+}
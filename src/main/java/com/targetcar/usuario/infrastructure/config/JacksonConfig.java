@@ -0,0 +1,17 @@
+package com.targetcar.usuario.infrastructure.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Troca a reflexão dos getters/setters por acesso gerado via LambdaMetafactory em todas as
+    // serializações do ObjectMapper do Spring (respostas, Feign e importação)
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,43 @@
+package com.targetcar.usuario.infrastructure.config;
+
+import com.targetcar.usuario.infrastructure.metricas.ServerTimingFilter;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Métricas expostas em /actuator/prometheus, na porta management.server.port. Hikari, Hibernate (com
+// hibernate.generate_statistics ligado), Feign (http.client.requests) e as requisições HTTP são instrumentados
+// pelo próprio Spring Boot;
+// aqui ficam o suporte a @Timed, o circuit breaker do ViaCEP e o cabeçalho Server-Timing de depuração
+@Configuration
+public class MetricasConfig {
+
+    // Habilita @Timed nos beans (UsuarioService e conversores)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public TaggedCircuitBreakerMetrics circuitBreakerMetrics(CircuitBreakerRegistry circuitBreakerRegistry,
+                                                             MeterRegistry meterRegistry) {
+        TaggedCircuitBreakerMetrics metricas = TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry);
+        metricas.bindTo(meterRegistry);
+        return metricas;
+    }
+
+    // Registrado antes da cadeia do Spring Security para incluir o tempo de autenticação
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${observabilidade.server-timing.habilitado:false}") boolean habilitado) {
+        FilterRegistrationBean<ServerTimingFilter> registro = new FilterRegistrationBean<>(new ServerTimingFilter(habilitado));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
+    }
+}
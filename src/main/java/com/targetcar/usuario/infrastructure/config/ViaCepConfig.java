@@ -0,0 +1,54 @@
+package com.targetcar.usuario.infrastructure.config;
+
+import com.targetcar.usuario.infrastructure.exceptions.IllegalArgumentException;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ViaCepConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        return CircuitBreakerRegistry.ofDefaults();
+    }
+
+    // Limite único de chamadas simultâneas ao ViaCEP, dividido pelo cliente Feign e pelo cliente assíncrono
+    @Bean
+    public Bulkhead viaCepBulkhead(@Value("${viacep.bulkhead.max-concorrentes:20}") int maxConcorrentes,
+                                   @Value("${viacep.bulkhead.espera-maxima:PT0S}") Duration esperaMaxima) {
+        return Bulkhead.of("via-cep", BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcorrentes)
+                .maxWaitDuration(esperaMaxima)
+                .build());
+    }
+
+    // Circuit breaker único do ViaCEP, compartilhado pelo cliente Feign e pelo cliente assíncrono
+    @Bean
+    public CircuitBreaker viaCepCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry,
+                                               @Value("${viacep.circuit-breaker.taxa-falhas:50}") float taxaFalhas,
+                                               @Value("${viacep.circuit-breaker.janela:20}") int janela,
+                                               @Value("${viacep.circuit-breaker.chamada-lenta:PT2S}") Duration chamadaLenta,
+                                               @Value("${viacep.circuit-breaker.tempo-aberto:PT30S}") Duration tempoAberto) {
+        return circuitBreakerRegistry.circuitBreaker("via-cep", CircuitBreakerConfig.custom()
+                .failureRateThreshold(taxaFalhas)
+                .slowCallRateThreshold(taxaFalhas)
+                .slowCallDurationThreshold(chamadaLenta)
+                .slidingWindowSize(janela)
+                .minimumNumberOfCalls(janela)
+                .waitDurationInOpenState(tempoAberto)
+                // Limite de concorrência atingido e erros 4xx não indicam que o ViaCEP está fora do ar
+                .ignoreExceptions(BulkheadFullException.class, FeignException.FeignClientException.class,
+                        IllegalArgumentException.class)
+                .build());
+    }
+}
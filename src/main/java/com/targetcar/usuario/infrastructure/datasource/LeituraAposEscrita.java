@@ -0,0 +1,81 @@
+package com.targetcar.usuario.infrastructure.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Janela de leitura após escrita: durante alguns segundos depois de alterar os próprios dados, as leituras
+// daquele usuário vão para o primário, e não para uma réplica que ainda pode não ter recebido a alteração.
+// Sem o roteamento habilitado não faz nada
+@Component
+public class LeituraAposEscrita {
+
+    // Recurso ligado à transação atual quando ela precisa ler do primário; consultado pelo RoteamentoDataSource
+    private static final Object PRIMARIO_EXIGIDO = LeituraAposEscrita.class.getName() + ".PRIMARIO_EXIGIDO";
+
+    private final Cache<String, Boolean> escritasRecentes;
+
+    public LeituraAposEscrita(@Value("${datasource.roteamento.habilitado:false}") boolean habilitado,
+                              @Value("${datasource.roteamento.leitura-apos-escrita.janela:PT5S}") Duration janela,
+                              @Value("${datasource.roteamento.leitura-apos-escrita.max-entries:100000}") long tamanhoMaximo) {
+        this.escritasRecentes = habilitado
+                ? Caffeine.newBuilder().maximumSize(tamanhoMaximo).expireAfterWrite(janela).build()
+                : null;
+    }
+
+    // Abre a janela do usuário. Dentro de uma transação a janela começa no commit, quando a replicação começa
+    public void registrarEscrita(String email) {
+        if (escritasRecentes == null || email == null) {
+            return;
+        }
+        String chave = email.toLowerCase(Locale.ROOT);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    escritasRecentes.put(chave, Boolean.TRUE);
+                }
+            });
+        } else {
+            escritasRecentes.put(chave, Boolean.TRUE);
+        }
+    }
+
+    // Para escritas identificadas só pelo id (endereço, telefone): a janela é do usuário autenticado
+    public void registrarEscritaDoUsuarioAutenticado() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.isAuthenticated()) {
+            registrarEscrita(autenticacao.getName());
+        }
+    }
+
+    // Chamado no início de uma transação somente leitura, antes do primeiro comando SQL:
+    // se o usuário escreveu há pouco, a transação inteira lê do primário
+    public void lerDoPrimarioSeRecente(String email) {
+        if (escritasRecentes == null || email == null
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PRIMARIO_EXIGIDO)
+                || escritasRecentes.getIfPresent(email.toLowerCase(Locale.ROOT)) == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PRIMARIO_EXIGIDO, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PRIMARIO_EXIGIDO);
+            }
+        });
+    }
+
+    static boolean primarioExigido() {
+        return TransactionSynchronizationManager.hasResource(PRIMARIO_EXIGIDO);
+    }
+}
@@ -0,0 +1,104 @@
+package com.targetcar.usuario.infrastructure.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Envia transações @Transactional(readOnly = true) para as réplicas (em rodízio) e todo o resto para o primário.
+// Deve ficar atrás de um LazyConnectionDataSourceProxy: a conexão física só é pedida no primeiro comando SQL,
+// quando o flag readOnly da transação já está disponível.
+// Uma réplica que recusa conexão fica fora do rodízio por esperaIndisponivel e a leitura cai no primário
+@Slf4j
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+
+    private final DataSource primario;
+    private final Map<String, DataSource> replicas;
+    private final List<String> nomesReplicas;
+    private final long esperaIndisponivelNanos;
+    // Instante (System.nanoTime) até o qual cada réplica fica fora do rodízio
+    private final Map<String, Long> indisponiveisAte = new ConcurrentHashMap<>();
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public RoteamentoDataSource(DataSource primario, Map<String, DataSource> replicas, Duration esperaIndisponivel) {
+        this.primario = primario;
+        this.replicas = replicas;
+        this.nomesReplicas = new ArrayList<>(replicas.keySet());
+        this.esperaIndisponivelNanos = esperaIndisponivel.toNanos();
+
+        Map<Object, Object> destinos = new HashMap<>(replicas);
+        destinos.put(PRIMARIO, primario);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || LeituraAposEscrita.primarioExigido()) {
+            return PRIMARIO;
+        }
+        return proximaReplicaDisponivel();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object chave = determineCurrentLookupKey();
+        if (PRIMARIO.equals(chave)) {
+            return primario.getConnection();
+        }
+        try {
+            return replicas.get(chave).getConnection();
+        } catch (SQLException e) {
+            indisponiveisAte.put((String) chave, System.nanoTime() + esperaIndisponivelNanos);
+            log.warn("Réplica {} indisponível, leituras vão para o primário por {} ms: {}",
+                    chave, esperaIndisponivelNanos / 1_000_000, e.getMessage());
+            return primario.getConnection();
+        }
+    }
+
+    // Rodízio entre as réplicas, pulando as marcadas como indisponíveis; sem nenhuma disponível, usa o primário.
+    // Passado o tempo de espera a réplica volta ao rodízio e a próxima conexão serve de verificação
+    private String proximaReplicaDisponivel() {
+        int quantidade = nomesReplicas.size();
+        int inicio = proxima.getAndIncrement();
+        long agora = System.nanoTime();
+        for (int i = 0; i < quantidade; i++) {
+            String nome = nomesReplicas.get(Math.floorMod(inicio + i, quantidade));
+            Long ate = indisponiveisAte.get(nome);
+            if (ate == null) {
+                return nome;
+            }
+            if (agora - ate >= 0) {
+                indisponiveisAte.remove(nome, ate);
+                return nome;
+            }
+        }
+        return PRIMARIO;
+    }
+
+    // Os pools das réplicas não são beans; fecha junto com o roteador
+    public void close() {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable fechavel) {
+                try {
+                    fechavel.close();
+                } catch (Exception e) {
+                    log.warn("Falha ao fechar o pool da réplica", e);
+                }
+            }
+        }
+    }
+}
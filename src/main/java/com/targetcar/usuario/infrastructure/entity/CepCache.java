@@ -0,0 +1,46 @@
+package com.targetcar.usuario.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "tb_cep_cache")
+public class CepCache {
+
+    @Id
+    @Column(name = "cep", length = 8)
+    private String cep;
+    @Column(name = "logradouro")
+    private String logradouro;
+    @Column(name = "complemento")
+    private String complemento;
+    @Column(name = "unidade")
+    private String unidade;
+    @Column(name = "bairro")
+    private String bairro;
+    @Column(name = "localidade")
+    private String localidade;
+    @Column(name = "uf", length = 2)
+    private String uf;
+    @Column(name = "estado")
+    private String estado;
+    @Column(name = "regiao")
+    private String regiao;
+    @Column(name = "ibge", length = 10)
+    private String ibge;
+    @Column(name = "gia", length = 10)
+    private String gia;
+    @Column(name = "ddd", length = 3)
+    private String ddd;
+    @Column(name = "siafi", length = 10)
+    private String siafi;
+    @Column(name = "atualizado_em")
+    private Instant atualizadoEm;
+}
@@ -2,6 +2,7 @@ package com.targetcar.usuario.infrastructure.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Getter
 @Setter
@@ -9,11 +10,13 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "tb_endereco")
+@DynamicUpdate
+@Table(name = "tb_endereco", indexes = @Index(name = "idx_endereco_usuario_id", columnList = "usuario_id"))
 public class Endereco {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_endereco_seq")
+    @SequenceGenerator(name = "tb_endereco_seq", sequenceName = "tb_endereco_seq", allocationSize = 50)
     private Long id;
     @Column(name = "rua")
     private String rua;
@@ -29,4 +32,7 @@ public class Endereco {
     private String cep;
     @Column(name = "usuario_id")
     private Long usuario_id;
+    @Version
+    @Column(name = "versao", columnDefinition = "bigint default 0 not null")
+    private Long versao;
 }
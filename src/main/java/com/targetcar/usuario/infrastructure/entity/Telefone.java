@@ -2,6 +2,7 @@ package com.targetcar.usuario.infrastructure.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Getter
 @Setter
@@ -9,11 +10,13 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "tb_telefone")
+@DynamicUpdate
+@Table(name = "tb_telefone", indexes = @Index(name = "idx_telefone_usuario_id", columnList = "usuario_id"))
 public class Telefone {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_telefone_seq")
+    @SequenceGenerator(name = "tb_telefone_seq", sequenceName = "tb_telefone_seq", allocationSize = 50)
     private Long id;
     @Column(name = "numero", length = 10)
     private String numero;
@@ -21,4 +24,7 @@ public class Telefone {
     private String ddd;
     @Column(name = "usuario_id")
     private Long usuario_id;
+    @Version
+    @Column(name = "versao", columnDefinition = "bigint default 0 not null")
+    private Long versao;
 }
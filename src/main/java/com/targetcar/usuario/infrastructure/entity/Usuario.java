@@ -2,6 +2,7 @@ package com.targetcar.usuario.infrastructure.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -13,12 +14,15 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+// @DynamicUpdate: o UPDATE leva só as colunas alteradas
 @Entity
+@DynamicUpdate
 @Table(name = "tb_usuario")
 public class Usuario implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_usuario_seq")
+    @SequenceGenerator(name = "tb_usuario_seq", sequenceName = "tb_usuario_seq", allocationSize = 50)
     private Long id;
     @Column(name = "nome", length = 100)
     private String nome;
@@ -26,6 +30,10 @@ public class Usuario implements UserDetails {
     private String email;
     @Column(name = "senha")
     private String senha;
+    // Controle otimista: incrementada a cada UPDATE; linhas antigas e inserts via JDBC começam em 0
+    @Version
+    @Column(name = "versao", columnDefinition = "bigint default 0 not null")
+    private Long versao;
     @OneToMany(cascade = CascadeType.ALL)
     @JoinColumn(name = "usuario_id", referencedColumnName = "id")
     private List<Endereco> enderecos;
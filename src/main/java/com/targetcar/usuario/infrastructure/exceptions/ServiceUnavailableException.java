@@ -0,0 +1,12 @@
+package com.targetcar.usuario.infrastructure.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String mensagem) {
+        super(mensagem);
+    }
+
+    public ServiceUnavailableException(String mensagem, Throwable throwable) {
+        super(mensagem, throwable);
+    }
+}
@@ -0,0 +1,93 @@
+package com.targetcar.usuario.infrastructure.metricas;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+// Filtro de depuração: quando habilitado (observabilidade.server-timing.habilitado) e a requisição traz o
+// cabeçalho X-Server-Timing, a resposta volta com o cabeçalho Server-Timing detalhando o tempo de cada etapa.
+// O cabeçalho é gravado quando a resposta começa a ser escrita, antes do commit
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO_PEDIDO = "X-Server-Timing";
+
+    private final boolean habilitado;
+
+    public ServerTimingFilter(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || request.getHeader(CABECALHO_PEDIDO) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RespostaComServerTiming resposta = new RespostaComServerTiming(response, TemposRequisicao.iniciar());
+        try {
+            chain.doFilter(request, resposta);
+            // Respostas sem corpo não passam por getOutputStream/getWriter
+            resposta.escreverCabecalho();
+        } finally {
+            TemposRequisicao.encerrar();
+        }
+    }
+
+    private static class RespostaComServerTiming extends HttpServletResponseWrapper {
+
+        private final TemposRequisicao tempos;
+        private final long inicio = System.nanoTime();
+        private boolean escrito;
+
+        RespostaComServerTiming(HttpServletResponse response, TemposRequisicao tempos) {
+            super(response);
+            this.tempos = tempos;
+        }
+
+        void escreverCabecalho() {
+            if (!escrito && !isCommitted()) {
+                escrito = true;
+                setHeader("Server-Timing", tempos.paraServerTiming(System.nanoTime() - inicio));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            escreverCabecalho();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            escreverCabecalho();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            escreverCabecalho();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            escreverCabecalho();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            escreverCabecalho();
+            super.sendError(sc, msg);
+        }
+    }
+}
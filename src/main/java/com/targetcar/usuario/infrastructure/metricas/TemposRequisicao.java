@@ -0,0 +1,67 @@
+package com.targetcar.usuario.infrastructure.metricas;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Acumula o tempo gasto em cada etapa (jwt, usuario, senha, viacep) da requisição atual,
+// usado pelo ServerTimingFilter para montar o cabeçalho Server-Timing.
+// Só mede o que roda na thread da requisição e só está ativo quando o filtro iniciou a medição;
+// fora disso medir() apenas executa a tarefa (e registra no Timer, se informado)
+public final class TemposRequisicao {
+
+    private static final ThreadLocal<TemposRequisicao> ATUAL = new ThreadLocal<>();
+
+    private final Map<String, Long> etapas = new LinkedHashMap<>();
+
+    private TemposRequisicao() {
+    }
+
+    static TemposRequisicao iniciar() {
+        TemposRequisicao tempos = new TemposRequisicao();
+        ATUAL.set(tempos);
+        return tempos;
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    public static <T> T medir(String etapa, Supplier<T> tarefa) {
+        return medir(etapa, null, tarefa);
+    }
+
+    public static <T> T medir(String etapa, Timer timer, Supplier<T> tarefa) {
+        TemposRequisicao tempos = ATUAL.get();
+        if (tempos == null && timer == null) {
+            return tarefa.get();
+        }
+        long inicio = System.nanoTime();
+        try {
+            return tarefa.get();
+        } finally {
+            long duracao = System.nanoTime() - inicio;
+            if (timer != null) {
+                timer.record(duracao, TimeUnit.NANOSECONDS);
+            }
+            if (tempos != null) {
+                tempos.etapas.merge(etapa, duracao, Long::sum);
+            }
+        }
+    }
+
+    // Formato do cabeçalho: "jwt;dur=0.42, usuario;dur=3.10, total;dur=12.80" (durações em milissegundos)
+    String paraServerTiming(long totalNanos) {
+        StringBuilder cabecalho = new StringBuilder();
+        etapas.forEach((etapa, nanos) -> cabecalho.append(etapa).append(";dur=").append(milissegundos(nanos)).append(", "));
+        return cabecalho.append("total;dur=").append(milissegundos(totalNanos)).toString();
+    }
+
+    private static String milissegundos(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
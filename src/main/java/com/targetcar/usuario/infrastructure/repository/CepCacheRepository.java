@@ -0,0 +1,9 @@
+package com.targetcar.usuario.infrastructure.repository;
+
+import com.targetcar.usuario.infrastructure.entity.CepCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CepCacheRepository extends JpaRepository<CepCache, String> {
+}
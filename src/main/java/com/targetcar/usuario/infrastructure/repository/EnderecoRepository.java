@@ -1,10 +1,31 @@
 package com.targetcar.usuario.infrastructure.repository;
 
 
+import com.targetcar.usuario.business.dto.EnderecoDTO;
 import com.targetcar.usuario.infrastructure.entity.Endereco;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface EnderecoRepository extends JpaRepository<Endereco, Long> {
+
+    // Monta o DTO direto na consulta, sem carregar a entidade no contexto de persistência
+    @Query("select new com.targetcar.usuario.business.dto.EnderecoDTO(e.id, e.rua, e.numero, e.complemento, e.cidade, e.estado, e.cep, e.versao) " +
+            "from Endereco e where e.usuario_id = :usuarioId order by e.id")
+    List<EnderecoDTO> findDTOByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Endereços de uma página inteira da listagem em uma única consulta
+    @Query("select e from Endereco e where e.usuario_id in :usuarioIds order by e.usuario_id, e.id")
+    List<Endereco> findByUsuarioIds(@Param("usuarioIds") Collection<Long> usuarioIds);
+
+    // Exclusão em massa por usuário: um único DELETE, sem carregar as entidades (índice idx_endereco_usuario_id)
+    @Modifying
+    @Query("delete from Endereco e where e.usuario_id in :usuarioIds")
+    int deleteByUsuarioIds(@Param("usuarioIds") Collection<Long> usuarioIds);
 }
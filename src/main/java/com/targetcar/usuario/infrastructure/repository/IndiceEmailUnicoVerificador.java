@@ -0,0 +1,29 @@
+package com.targetcar.usuario.infrastructure.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// db/indices.sql não cria uk_usuario_email_lower quando a base já tem e-mails repetidos, e o aviso do Postgres
+// não aparece no log da aplicação. Sem o índice o cadastro aceita e-mails repetidos, então a falta dele é um erro
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceEmailUnicoVerificador {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificar() {
+        Boolean existe = jdbcTemplate.queryForObject(
+                "select exists (select 1 from pg_indexes where tablename = 'tb_usuario' and indexname = ?)",
+                Boolean.class, UsuarioRepository.INDICE_EMAIL_UNICO);
+        if (!Boolean.TRUE.equals(existe)) {
+            log.error("Índice {} ausente: há e-mails repetidos em tb_usuario e o cadastro não barra novos repetidos. "
+                    + "Rode db/migracao/emails-duplicados.sql", UsuarioRepository.INDICE_EMAIL_UNICO);
+        }
+    }
+}
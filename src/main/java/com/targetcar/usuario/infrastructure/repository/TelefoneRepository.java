@@ -1,9 +1,30 @@
 package com.targetcar.usuario.infrastructure.repository;
 
+import com.targetcar.usuario.business.dto.TelefoneDTO;
 import com.targetcar.usuario.infrastructure.entity.Telefone;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TelefoneRepository extends JpaRepository<Telefone, Long> {
+
+    // Monta o DTO direto na consulta, sem carregar a entidade no contexto de persistência
+    @Query("select new com.targetcar.usuario.business.dto.TelefoneDTO(t.id, t.numero, t.ddd, t.versao) " +
+            "from Telefone t where t.usuario_id = :usuarioId order by t.id")
+    List<TelefoneDTO> findDTOByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    // Telefones de uma página inteira da listagem em uma única consulta
+    @Query("select t from Telefone t where t.usuario_id in :usuarioIds order by t.usuario_id, t.id")
+    List<Telefone> findByUsuarioIds(@Param("usuarioIds") Collection<Long> usuarioIds);
+
+    // Exclusão em massa por usuário: um único DELETE, sem carregar as entidades (índice idx_telefone_usuario_id)
+    @Modifying
+    @Query("delete from Telefone t where t.usuario_id in :usuarioIds")
+    int deleteByUsuarioIds(@Param("usuarioIds") Collection<Long> usuarioIds);
 }
@@ -0,0 +1,127 @@
+package com.targetcar.usuario.infrastructure.repository;
+
+import com.targetcar.usuario.business.dto.EnderecoDTO;
+import com.targetcar.usuario.business.dto.TelefoneDTO;
+import com.targetcar.usuario.business.dto.UsuarioDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+// Inserções em lote via JDBC para a importação de usuários: um batch por tabela em vez de um INSERT por linha.
+// Os ids vêm das mesmas sequências usadas pelas entidades
+@Repository
+@RequiredArgsConstructor
+public class UsuarioImportacaoRepository {
+
+    // Mesmo allocationSize dos @SequenceGenerator das entidades
+    private static final int TAMANHO_BLOCO_SEQUENCIA = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Insere os usuários (senha já criptografada) e retorna os ids usados, na mesma ordem da lista.
+    // E-mails que já existem (índice uk_usuario_email_lower) são ignorados pelo "on conflict (lower(email))"
+    // e ficam com id null; qualquer outra violação, como a de chave primária, falha o lote.
+    // O batch não é reescrito pelo driver, então cada linha tem sua própria contagem
+    public List<Long> inserirUsuarios(List<UsuarioDTO> usuarios) {
+        List<Long> ids = reservarIds("tb_usuario_seq", usuarios.size());
+        int[] inseridos = jdbcTemplate.batchUpdate(
+                "insert into tb_usuario (id, nome, email, senha) values (?, ?, ?, ?) " +
+                        "on conflict (lower(email)) do nothing",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        UsuarioDTO usuario = usuarios.get(i);
+                        ps.setLong(1, ids.get(i));
+                        ps.setString(2, usuario.getNome());
+                        ps.setString(3, usuario.getEmail());
+                        ps.setString(4, usuario.getSenha());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return usuarios.size();
+                    }
+                });
+        for (int i = 0; i < inseridos.length; i++) {
+            if (inseridos[i] == 0) {
+                ids.set(i, null);
+            }
+        }
+        return ids;
+    }
+
+    public void inserirEnderecos(List<EnderecoDTO> enderecos, List<Long> idsUsuario) {
+        List<Long> ids = reservarIds("tb_endereco_seq", enderecos.size());
+        jdbcTemplate.batchUpdate(
+                "insert into tb_endereco (id, rua, numero, complemento, cidade, estado, cep, usuario_id) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        EnderecoDTO endereco = enderecos.get(i);
+                        ps.setLong(1, ids.get(i));
+                        ps.setString(2, endereco.getRua());
+                        ps.setObject(3, endereco.getNumero(), Types.BIGINT);
+                        ps.setString(4, endereco.getComplemento());
+                        ps.setString(5, endereco.getCidade());
+                        ps.setString(6, endereco.getEstado());
+                        ps.setString(7, endereco.getCep());
+                        ps.setLong(8, idsUsuario.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return enderecos.size();
+                    }
+                });
+    }
+
+    public void inserirTelefones(List<TelefoneDTO> telefones, List<Long> idsUsuario) {
+        List<Long> ids = reservarIds("tb_telefone_seq", telefones.size());
+        jdbcTemplate.batchUpdate(
+                "insert into tb_telefone (id, numero, ddd, usuario_id) values (?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        TelefoneDTO telefone = telefones.get(i);
+                        ps.setLong(1, ids.get(i));
+                        ps.setString(2, telefone.getNumero());
+                        ps.setString(3, telefone.getDdd());
+                        ps.setLong(4, idsUsuario.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return telefones.size();
+                    }
+                });
+    }
+
+    // Reserva ids da sequência da mesma forma que o otimizador pooled do Hibernate: cada nextval v devolve
+    // o bloco (v - 49, v]. O valor inicial 1 é a exceção: para ele o Hibernate chama nextval de novo e usa tudo
+    // de 1 até o segundo valor, então esse valor é descartado aqui (db/sequencias.sql já o consome na subida)
+    private List<Long> reservarIds(String sequencia, int quantidade) {
+        List<Long> ids = new ArrayList<>(quantidade);
+        while (ids.size() < quantidade) {
+            int blocos = (quantidade - ids.size() + TAMANHO_BLOCO_SEQUENCIA - 1) / TAMANHO_BLOCO_SEQUENCIA;
+            List<Long> finaisDeBloco = jdbcTemplate.queryForList(
+                    "select nextval('" + sequencia + "') from generate_series(1, ?)", Long.class, blocos);
+            for (Long fim : finaisDeBloco) {
+                if (fim <= 1) {
+                    continue;
+                }
+                for (long id = fim - TAMANHO_BLOCO_SEQUENCIA + 1; id <= fim && ids.size() < quantidade; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -1,19 +1,83 @@
 package com.targetcar.usuario.infrastructure.repository;
 
 import com.targetcar.usuario.infrastructure.entity.Usuario;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
-    boolean existsByEmail(String email);
+    // Índice único em lower(email), criado em db/indices.sql
+    String INDICE_EMAIL_UNICO = "uk_usuario_email_lower";
 
-    Optional<Usuario> findByEmail(String email);
+    // Todas as buscas por e-mail comparam lower(email), como o índice único: o e-mail é gravado como informado,
+    // mas Ana@x.com e ana@x.com são o mesmo usuário no cadastro, no login, na consulta e na exclusão
+    @Query("select case when count(u) > 0 then true else false end from Usuario u where lower(u.email) = lower(:email)")
+    boolean existsByEmail(@Param("email") String email);
+
+    @Query("select u from Usuario u where lower(u.email) = lower(:email)")
+    Optional<Usuario> findByEmail(@Param("email") String email);
+
+    // Verificação de e-mails já cadastrados para um lote inteiro em uma única consulta.
+    // Recebe e devolve e-mails em minúsculas, usando o índice uk_usuario_email_lower
+    @Query("select lower(u.email) from Usuario u where lower(u.email) in :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    @Query("select u.id as id, u.nome as nome, u.email as email, u.versao as versao from Usuario u where lower(u.email) = lower(:email)")
+    Optional<UsuarioResumo> findResumoByEmail(@Param("email") String email);
+
+    // Usuários de uma lista de e-mails em minúsculas, com o e-mail como está gravado (índice uk_usuario_email_lower)
+    @Query("select u.id as id, u.nome as nome, u.email as email from Usuario u where lower(u.email) in :emails")
+    List<UsuarioResumo> findResumoByEmailsNormalizados(@Param("emails") Collection<String> emails);
+
+    // Listagem por keyset: continua a partir do último id da página anterior em vez de usar OFFSET,
+    // então qualquer página custa o mesmo que a primeira. O Pageable só limita a quantidade de linhas.
+    // Com o índice idx_usuario_id_cobertura (id) include (nome, email) a leitura é um index-only scan.
+    // Nos filtros, "e.usuario_id > :apos" repete a condição do keyset para que o banco também possa partir
+    // dos índices (estado, usuario_id) / (cidade, usuario_id) de tb_endereco já na posição da página
+    @Query("select u.id as id, u.nome as nome, u.email as email from Usuario u where u.id > :apos order by u.id")
+    List<UsuarioResumo> listarApos(@Param("apos") long apos, Pageable limite);
+
+    @Query("select u.id as id, u.nome as nome, u.email as email from Usuario u where u.id > :apos " +
+            "and exists (select 1 from Endereco e where e.usuario_id = u.id and e.usuario_id > :apos and e.estado = :estado) order by u.id")
+    List<UsuarioResumo> listarAposPorEstado(@Param("apos") long apos, @Param("estado") String estado, Pageable limite);
+
+    @Query("select u.id as id, u.nome as nome, u.email as email from Usuario u where u.id > :apos " +
+            "and exists (select 1 from Endereco e where e.usuario_id = u.id and e.usuario_id > :apos and e.cidade = :cidade) order by u.id")
+    List<UsuarioResumo> listarAposPorCidade(@Param("apos") long apos, @Param("cidade") String cidade, Pageable limite);
+
+    @Query("select u.id as id, u.nome as nome, u.email as email from Usuario u where u.id > :apos " +
+            "and exists (select 1 from Endereco e where e.usuario_id = u.id and e.usuario_id > :apos and e.estado = :estado and e.cidade = :cidade) " +
+            "order by u.id")
+    List<UsuarioResumo> listarAposPorEstadoECidade(@Param("apos") long apos, @Param("estado") String estado,
+                                                   @Param("cidade") String cidade, Pageable limite);
+
+    @Query("select u from Usuario u left join fetch u.enderecos where lower(u.email) = lower(:email)")
+    Optional<Usuario> findComEnderecosByEmail(@Param("email") String email);
+
+    @Query("select u from Usuario u left join fetch u.telefones where u.id = :id")
+    Optional<Usuario> findComTelefonesById(@Param("id") Long id);
+
+    // Carrega o usuário com endereços e telefones em duas consultas. As duas coleções são List (bags),
+    // que o Hibernate não permite buscar no mesmo join; a segunda consulta completa a mesma instância
+    // gerenciada, por isso precisa rodar dentro de uma transação
+    default Optional<Usuario> buscarCompletoPorEmail(String email) {
+        Optional<Usuario> usuario = findComEnderecosByEmail(email);
+        usuario.ifPresent(u -> findComTelefonesById(u.getId()));
+        return usuario;
+    }
 
     @Transactional
-    void deleteByEmail(String email);
+    @Modifying
+    @Query("update Usuario u set u.senha = :senha, u.versao = u.versao + 1 where lower(u.email) = lower(:email)")
+    int atualizarSenha(@Param("email") String email, @Param("senha") String senha);
 }
@@ -0,0 +1,14 @@
+package com.targetcar.usuario.infrastructure.repository;
+
+// Projeção com apenas os dados públicos do usuário, sem senha e sem as coleções
+public interface UsuarioResumo {
+
+    Long getId();
+
+    String getNome();
+
+    String getEmail();
+
+    // Selecionada só nas consultas de um usuário; a listagem não a lê, para manter o index-only scan
+    Long getVersao();
+}
@@ -2,6 +2,7 @@ package com.targetcar.usuario.infrastructure.security;
 
 import com.targetcar.usuario.infrastructure.exceptions.ResourceNotFoundException;
 import com.targetcar.usuario.infrastructure.exceptions.UnauthorizedException;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.FilterChain;
@@ -10,11 +11,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 // Define a classe JwtRequestFilter, que estende OncePerRequestFilter
 public class JwtRequestFilter extends OncePerRequestFilter {
@@ -22,11 +25,17 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     // Define propriedades para armazenar instâncias de JwtUtil e UserDetailsService
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final RevogacaoTokenService revogacaoTokenService;
+    // Quando verdadeiro, o usuário autenticado é montado apenas a partir das claims do token, sem consulta ao banco
+    private final boolean autenticacaoStateless;
 
     // Construtor que inicializa as propriedades com instâncias fornecidas
-    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                            RevogacaoTokenService revogacaoTokenService, boolean autenticacaoStateless) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revogacaoTokenService = revogacaoTokenService;
+        this.autenticacaoStateless = autenticacaoStateless;
     }
 
     // Método chamado uma vez por requisição para processar o filtro
@@ -40,15 +49,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
                 // Extrai o token JWT do cabeçalho
                 final String token = authorizationHeader.substring(7);
-                // Extrai o nome de usuário do token JWT
-                final String username = jwtUtil.extrairEmailToken(token);
+                // Extrai as claims do token JWT uma única vez (verificação da assinatura em cache)
+                final Claims claims = jwtUtil.extrairClaims(token);
+                // Extrai o nome de usuário das claims
+                final String username = claims.getSubject();
 
                 // Se o nome de usuário não for nulo e o usuário não estiver autenticado ainda
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // Carrega os detalhes do usuário a partir do nome de usuário
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    // Valida o token JWT
-                    if (jwtUtil.validateToken(token, username)) {
+                    // Valida o token JWT e descarta tokens de usuários deletados ou com e-mail alterado
+                    if (jwtUtil.validateToken(claims, username) && !revogacaoTokenService.tokenRevogado(claims)) {
+                        // Carrega os detalhes do usuário a partir do token ou do banco de dados
+                        UserDetails userDetails = autenticacaoStateless
+                                ? usuarioDoToken(username)
+                                : userDetailsService.loadUserByUsername(username);
                         // Cria um objeto de autenticação com as informações do usuário
                         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
@@ -67,4 +80,12 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             throw new ResourceNotFoundException("Erro ao gerar o token", e);
         }
     }
+
+    // Monta o usuário autenticado só com o e-mail do token; a senha não é necessária após o login
+    private UserDetails usuarioDoToken(String username) {
+        return User.withUsername(username)
+                .password("")
+                .authorities(List.of())
+                .build();
+    }
 }
@@ -1,60 +1,164 @@
 package com.targetcar.usuario.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.targetcar.usuario.infrastructure.metricas.TemposRequisicao;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtUtil {
 
-    // Chave secreta usada para assinar e verificar tokens JWT
-    private final String secretKey = "chave-aqui";
+    // Validade do token JWT: 1 hora
+    public static final long VALIDADE_TOKEN_MS = 1000 * 60 * 60;
+
+    // Chave secreta (Base64) usada para assinar e verificar tokens JWT
+    private final String secretKey;
+
+    // Chave e parser construídos uma única vez e reaproveitados em todas as chamadas
+    private volatile SecretKey chaveAssinatura;
+    private volatile JwtParser parser;
+
+    // Claims já verificadas, indexadas pelo hash do token e removidas no "exp" de cada token
+    private final Cache<String, Claims> claimsVerificadas;
+
+    private final Timer tempoGeracao;
+    private final Timer tempoVerificacao;
+
+    public JwtUtil(@Value("${jwt.secret:chave-aqui}") String secretKey,
+                   @Value("${jwt.cache.max-entries:10000}") long maxEntradasCache, MeterRegistry meterRegistry) {
+        this.secretKey = secretKey;
+        this.claimsVerificadas = Caffeine.newBuilder()
+                .maximumSize(maxEntradasCache)
+                .expireAfter(new ExpiracaoDoToken())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsVerificadas, "jwtClaims");
+        this.tempoGeracao = Timer.builder("usuario.jwt").tag("operacao", "gerar").register(meterRegistry);
+        // Só as verificações de assinatura; tokens já vistos são respondidos pelo cache (métricas jwtClaims)
+        this.tempoVerificacao = Timer.builder("usuario.jwt").tag("operacao", "verificar").register(meterRegistry);
+    }
 
     private SecretKey getSecretKey(){
-        byte[] key = Base64.getDecoder().decode(secretKey);
-        return Keys.hmacShaKeyFor(key);
+        SecretKey chave = chaveAssinatura;
+        if (chave == null) {
+            byte[] key = Base64.getDecoder().decode(secretKey);
+            chave = Keys.hmacShaKeyFor(key);
+            chaveAssinatura = chave;
+        }
+        return chave;
+    }
+
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parser()
+                    .verifyWith(getSecretKey()) // Define a chave secreta para validar a assinatura do token
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser;
     }
 
     // Gera um token JWT com o nome de usuário e validade de 1 hora
     public String generateToken(String username) {
-        return Jwts.builder()
+        return tempoGeracao.record(() -> Jwts.builder()
                 .subject(username) // Define o email de usuário como o assunto do token
                 .issuedAt(new Date()) // Define a data e hora de emissão do token
-                .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // Define a data e hora de expiração (1 hora a partir da emissão)
-                .signWith(getSecretKey()) // Converte a chave secreta em bytes e assina o token com ela
-                .compact(); // Constrói o token JWT
+                .expiration(new Date(System.currentTimeMillis() + VALIDADE_TOKEN_MS)) // Define a data e hora de expiração (1 hora a partir da emissão)
+                .signWith(getSecretKey()) // Assina o token com a chave secreta
+                .compact()); // Constrói o token JWT
     }
+
     // Extrai as claims do token JWT (informações adicionais do token)
     private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSecretKey()) // Define a chave secreta para validar a assinatura do token
-                .build()
+        return getParser()
                 .parseSignedClaims(token) // Analisa o token JWT e obtém as claims
                 .getPayload();  // Obtém o payload (corpo) do token, que contém as claims
     }
 
+    // Retorna as claims verificadas do token, fazendo o parse e a verificação da assinatura
+    // apenas na primeira vez em que o token é visto
+    public Claims extrairClaims(String token) {
+        return TemposRequisicao.medir("jwt", () ->
+                claimsVerificadas.get(hashToken(token), hash -> tempoVerificacao.record(() -> extractClaims(token))));
+    }
+
     // Extrai o email do usuário do token JWT
     public String extrairEmailToken(String token) {
         // Obtém o assunto (nome de usuário) das claims do token
-        return extractClaims(token).getSubject();
+        return extrairClaims(token).getSubject();
     }
 
     // Verifica se o token JWT está expirado
     public boolean isTokenExpired(String token) {
-        // Compara a data de expiração do token com a data atual
-        return extractClaims(token).getExpiration().before(new Date());
+        return isTokenExpired(extrairClaims(token));
     }
 
     // Valida o token JWT verificando o nome de usuário e se o token não está expirado
     public boolean validateToken(String token, String username) {
-        // Extrai o nome de usuário do token
-        final String extractedUsername = extrairEmailToken(token);
+        return validateToken(extrairClaims(token), username);
+    }
+
+    // Valida claims já extraídas, sem novo parse do token
+    public boolean validateToken(Claims claims, String username) {
         // Verifica se o nome de usuário do token corresponde ao fornecido e se o token não está expirado
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return (claims.getSubject().equals(username) && !isTokenExpired(claims));
+    }
+
+    private boolean isTokenExpired(Claims claims) {
+        // Compara a data de expiração do token com a data atual
+        return claims.getExpiration().before(new Date());
+    }
+
+    // Gera o hash SHA-256 do token, usado como chave do cache no lugar do token em si
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    // Cada entrada do cache expira exatamente no "exp" do token que a originou
+    private static class ExpiracaoDoToken implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String hash, Claims claims, long currentTime) {
+            Date expiracao = claims.getExpiration();
+            if (expiracao == null) {
+                return TimeUnit.MILLISECONDS.toNanos(VALIDADE_TOKEN_MS);
+            }
+            long restante = expiracao.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(restante, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String hash, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String hash, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
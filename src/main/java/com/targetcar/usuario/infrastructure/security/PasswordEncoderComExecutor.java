@@ -0,0 +1,98 @@
+package com.targetcar.usuario.infrastructure.security;
+
+import com.targetcar.usuario.infrastructure.exceptions.ServiceUnavailableException;
+import com.targetcar.usuario.infrastructure.metricas.TemposRequisicao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Executa o hash e a verificação de senhas (BCrypt) em um pool próprio, com fila limitada.
+// Assim o custo do BCrypt não ocupa mais CPU do que o pool permite, e um pico de logins recebe
+// 503 imediatamente quando a fila enche, em vez de aumentar a latência de todas as requisições.
+public class PasswordEncoderComExecutor implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer tempoEncode;
+    private final Timer tempoMatches;
+
+    public PasswordEncoderComExecutor(PasswordEncoder delegate, int threads, int tamanhoFila, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila), new ThreadsSenha(), new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "senha");
+        this.tempoEncode = Timer.builder("usuario.senha.hash").tag("operacao", "encode").register(meterRegistry);
+        this.tempoMatches = Timer.builder("usuario.senha.hash").tag("operacao", "matches").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return TemposRequisicao.medir("senha", () -> executar(tempoEncode, () -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return TemposRequisicao.medir("senha", () -> executar(tempoMatches, () -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // O encoder sem o pool, para quem já roda o hash em threads próprias e limitadas (importação em massa):
+    // assim o lote não ocupa as threads nem a fila reservadas aos logins e cadastros
+    public PasswordEncoder semExecutor() {
+        return delegate;
+    }
+
+    private <T> T executar(Timer timer, Callable<T> tarefa) {
+        Future<T> resultado;
+        try {
+            resultado = executor.submit(() -> timer.recordCallable(tarefa));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Servidor sobrecarregado, tente novamente em instantes", e);
+        }
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Processamento da senha interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static class ThreadsSenha implements ThreadFactory {
+
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "senha-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.targetcar.usuario.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class RevogacaoTokenService {
+
+    // Guarda, por e-mail em minúsculas, o instante (em segundos) em que os tokens do usuário foram revogados.
+    // Nenhum token vive mais que VALIDADE_TOKEN_MS, então a entrada pode ser descartada depois disso
+    private final Cache<String, Long> revogacoes = Caffeine.newBuilder()
+            .expireAfterWrite(JwtUtil.VALIDADE_TOKEN_MS, TimeUnit.MILLISECONDS)
+            .build();
+
+    // Revoga todos os tokens emitidos para o e-mail até agora (usuário deletado ou e-mail alterado)
+    public void revogarTokens(String email) {
+        revogacoes.put(email.toLowerCase(Locale.ROOT), Instant.now().getEpochSecond());
+    }
+
+    // Verifica se o token foi emitido até a última revogação do usuário. O iat do JWT tem resolução de segundos,
+    // então um token do mesmo segundo da revogação também é recusado: não dá para saber se veio antes ou depois.
+    // Um login feito nesse mesmo segundo precisa ser repetido
+    public boolean tokenRevogado(Claims claims) {
+        String email = claims.getSubject();
+        Long revogadoEm = email != null ? revogacoes.getIfPresent(email.toLowerCase(Locale.ROOT)) : null;
+        if (revogadoEm == null) {
+            return false;
+        }
+        Date emitidoEm = claims.getIssuedAt();
+        return emitidoEm == null || emitidoEm.getTime() / 1000 <= revogadoEm;
+    }
+}
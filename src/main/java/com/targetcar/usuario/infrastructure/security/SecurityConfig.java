@@ -2,22 +2,39 @@ package com.targetcar.usuario.infrastructure.security;
 
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Configuration
 @EnableWebSecurity
 @SecurityScheme(name = SecurityConfig.SECURITY_SCHEME, type = SecuritySchemeType.HTTP,
@@ -29,26 +46,53 @@ public class SecurityConfig {
     // Instâncias de JwtUtil e UserDetailsService injetadas pelo Spring
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final RevogacaoTokenService revogacaoTokenService;
+    // Autenticação apenas pelas claims do token, sem consultar o banco a cada requisição
+    private final boolean autenticacaoStateless;
+    // E-mails com acesso às operações administrativas (seguranca.administradores, separados por vírgula).
+    // Vazio por padrão: ninguém tem acesso até a propriedade ser configurada
+    private final Set<String> administradores;
+    // Porta do actuator (management.server.port), separada da porta da API e não publicada para fora
+    private final int portaGerenciamento;
 
     // Construtor para injeção de dependências de JwtUtil e UserDetailsService
     @Autowired
-    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                          RevogacaoTokenService revogacaoTokenService,
+                          @Value("${jwt.autenticacao.stateless:false}") boolean autenticacaoStateless,
+                          @Value("${seguranca.administradores:}") List<String> administradores,
+                          @Value("${management.server.port:-1}") int portaGerenciamento) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revogacaoTokenService = revogacaoTokenService;
+        this.autenticacaoStateless = autenticacaoStateless;
+        this.administradores = administradores.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.portaGerenciamento = portaGerenciamento;
     }
 
     // Configuração do filtro de segurança
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        JwtRequestFilter jwtRequestFilter = new JwtRequestFilter(jwtUtil, userDetailsService);
+        JwtRequestFilter jwtRequestFilter = new JwtRequestFilter(jwtUtil, userDetailsService,
+                revogacaoTokenService, autenticacaoStateless);
 
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers(naPortaDeGerenciamento("/actuator/prometheus")).permitAll()
                         .requestMatchers(HttpMethod.POST, "/usuario").permitAll()
                         .requestMatchers(HttpMethod.POST, "/usuario/login").permitAll()
                         .requestMatchers(HttpMethod.GET, "/usuario/endereco/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/usuario/endereco/lote").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/usuario/lista").access(administrador())
+                        .requestMatchers(HttpMethod.POST, "/usuario/exclusao").access(administrador())
+                        .requestMatchers(HttpMethod.POST, "/usuario/importacao").access(administrador())
                         .requestMatchers("/usuario/**").authenticated()
                         .anyRequest().authenticated()
                 )
@@ -60,10 +104,42 @@ public class SecurityConfig {
         return http.build();
     }
 
-    // Configura o PasswordEncoder para criptografar senhas usando BCrypt
+    // Caminho recebido na porta do actuator; com o actuator na mesma porta da API nunca casa e as métricas exigem token
+    private RequestMatcher naPortaDeGerenciamento(String caminho) {
+        return request -> portaGerenciamento > 0
+                && request.getLocalPort() == portaGerenciamento
+                && caminho.equals(request.getRequestURI());
+    }
+
+    // Libera a requisição só para usuários autenticados cujo e-mail está em seguranca.administradores
+    private AuthorizationManager<RequestAuthorizationContext> administrador() {
+        return (autenticacao, contexto) -> {
+            Authentication atual = autenticacao.get();
+            return new AuthorizationDecision(atual != null
+                    && atual.isAuthenticated()
+                    && !(atual instanceof AnonymousAuthenticationToken)
+                    && administradores.contains(atual.getName().toLowerCase(Locale.ROOT)));
+        };
+    }
+
+    // Configura o PasswordEncoder com vários algoritmos lado a lado: novas senhas usam seguranca.senha.algoritmo,
+    // e hashes antigos (sem prefixo {id}) continuam sendo verificados como BCrypt.
+    // Tudo é executado em um pool dedicado e limitado para não ocupar as threads das requisições
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Retorna uma instância de BCryptPasswordEncoder
+    public PasswordEncoderComExecutor passwordEncoder(@Value("${seguranca.senha.algoritmo:bcrypt}") String algoritmo,
+                                           @Value("${seguranca.senha.bcrypt-forca:10}") int forcaBcrypt,
+                                           @Value("${seguranca.senha.threads:4}") int threads,
+                                           @Value("${seguranca.senha.tamanho-fila:64}") int tamanhoFila,
+                                           MeterRegistry meterRegistry) {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(forcaBcrypt);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(algoritmo, encoders);
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new PasswordEncoderComExecutor(delegatingPasswordEncoder, threads, tamanhoFila, meterRegistry);
     }
 
     // Configura o AuthenticationManager usando AuthenticationConfiguration
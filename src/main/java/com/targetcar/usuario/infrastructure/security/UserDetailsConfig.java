@@ -0,0 +1,33 @@
+package com.targetcar.usuario.infrastructure.security;
+
+import com.targetcar.usuario.infrastructure.datasource.LeituraAposEscrita;
+import com.targetcar.usuario.infrastructure.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class UserDetailsConfig {
+
+    // Único UserDetailsService da aplicação: o UserDetailsServiceImpl envolvido pelo cache
+    @Bean
+    public UserDetailsServiceComCache userDetailsService(UsuarioRepository usuarioRepository,
+                                                         PlatformTransactionManager transactionManager,
+                                                         LeituraAposEscrita leituraAposEscrita,
+                                                         @Value("${usuario.cache.user-details.max-size:10000}") long tamanhoMaximo,
+                                                         @Value("${usuario.cache.user-details.ttl:PT5M}") Duration ttl,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        UserDetailsServiceComCache userDetailsService = new UserDetailsServiceComCache(
+                new UserDetailsServiceImpl(usuarioRepository, leitura, leituraAposEscrita), tamanhoMaximo, ttl);
+        meterRegistry.ifAvailable(userDetailsService::registrarMetricas);
+        return userDetailsService;
+    }
+}
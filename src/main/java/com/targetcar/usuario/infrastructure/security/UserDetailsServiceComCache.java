@@ -0,0 +1,77 @@
+package com.targetcar.usuario.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.targetcar.usuario.infrastructure.metricas.TemposRequisicao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Decorator do UserDetailsService que mantém em memória os usuários carregados recentemente,
+// evitando o findByEmail no banco a cada requisição autenticada
+public class UserDetailsServiceComCache implements UserDetailsService, UserDetailsPasswordService {
+
+    private final UserDetailsServiceImpl delegate;
+    private final Cache<String, UserDetails> usuarios;
+    // Incrementada a cada evict: uma carga iniciada antes do evict não pode gravar no cache o que leu
+    private final AtomicLong geracao = new AtomicLong();
+    // Tempo das cargas que vão ao banco; definido em registrarMetricas
+    private Timer tempoCarga;
+
+    public UserDetailsServiceComCache(UserDetailsServiceImpl delegate, long tamanhoMaximo, Duration ttl) {
+        this.delegate = delegate;
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        // A consulta ao banco não roda dentro do lock do cache (get(email, loader)), o que prenderia a virtual
+        // thread durante o I/O. Duas cargas simultâneas do mesmo usuário são inofensivas; já uma carga que leu
+        // o banco antes de um evict traria dados antigos, por isso só é gravada se a geração não mudou
+        // Chave em minúsculas: o login e o token podem trazer o e-mail com maiúsculas diferentes das gravadas
+        String chave = email.toLowerCase(Locale.ROOT);
+        UserDetails usuario = usuarios.getIfPresent(chave);
+        if (usuario == null) {
+            long geracaoDaCarga = geracao.get();
+            UserDetails carregado = TemposRequisicao.medir("usuario", tempoCarga, () -> delegate.loadUserByUsername(email));
+            usuarios.asMap().compute(chave, (k, atual) -> geracao.get() == geracaoDaCarga ? carregado : atual);
+            usuario = carregado;
+        }
+        // Retorna uma cópia: o AuthenticationManager apaga a senha do usuário autenticado após o login
+        return User.withUserDetails(usuario).build();
+    }
+
+    // Chamado pelo DaoAuthenticationProvider após um login bem-sucedido quando o hash da senha
+    // usa um algoritmo ou custo abaixo do atual; newPassword já vem criptografada
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetails atualizado = delegate.updatePassword(user, newPassword);
+        evict(user.getUsername());
+        return atualizado;
+    }
+
+    // Remove o usuário do cache para que a próxima requisição volte a consultar o banco
+    public void evict(String email) {
+        geracao.incrementAndGet();
+        usuarios.invalidate(email.toLowerCase(Locale.ROOT));
+    }
+
+    // Publica hits, misses e evictions do cache e o tempo das consultas ao banco no registro de métricas
+    public void registrarMetricas(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "userDetails");
+        this.tempoCarga = Timer.builder("usuario.user-details.carga").register(meterRegistry);
+    }
+}
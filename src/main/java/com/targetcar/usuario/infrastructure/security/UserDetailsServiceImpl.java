@@ -1,28 +1,40 @@
 package com.targetcar.usuario.infrastructure.security;
 
+import com.targetcar.usuario.infrastructure.datasource.LeituraAposEscrita;
 import com.targetcar.usuario.infrastructure.entity.Usuario;
 import com.targetcar.usuario.infrastructure.repository.UsuarioRepository;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-@Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+// Registrado em UserDetailsConfig, envolvido pelo UserDetailsServiceComCache
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     // Repositório para acessar dados de usuário no banco de dados
 
     private final UsuarioRepository usuarioRepository;
+    // Transação somente leitura: com o roteamento habilitado a consulta vai para uma réplica
+    private final TransactionTemplate leitura;
+    private final LeituraAposEscrita leituraAposEscrita;
 
-    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository) {
+    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository, TransactionTemplate leitura,
+                                  LeituraAposEscrita leituraAposEscrita) {
         this.usuarioRepository = usuarioRepository;
+        this.leitura = leitura;
+        this.leituraAposEscrita = leituraAposEscrita;
     }
 
     // Implementação do método para carregar detalhes do usuário pelo e-mail
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         // Busca o usuário no banco de dados pelo e-mail
-        Usuario usuario = usuarioRepository.findByEmail(email)
+        Usuario usuario = leitura.execute(status -> {
+                    leituraAposEscrita.lerDoPrimarioSeRecente(email);
+                    return usuarioRepository.findByEmail(email);
+                })
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
 
         // Cria e retorna um objeto UserDetails com base no usuário encontrado
@@ -31,4 +43,13 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .password(usuario.getSenha()) // Define a senha do usuário
                 .build(); // Constrói o objeto UserDetails
     }
+
+    // Grava o novo hash da senha (rehash transparente no login)
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        usuarioRepository.atualizarSenha(user.getUsername(), newPassword);
+        return User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
@@ -0,0 +1,24 @@
+-- Índices que o ddl-auto não cria; roda a cada inicialização, depois de sequencias.sql.
+-- Listagem por keyset (UsuarioRepository.listarApos*): índice de cobertura para index-only scan em id, nome e email
+create index if not exists idx_usuario_id_cobertura on tb_usuario (id) include (nome, email);
+-- Filtros da listagem por estado/cidade do endereço, já ordenados por usuario_id para continuar do keyset
+create index if not exists idx_endereco_estado_usuario on tb_endereco (estado, usuario_id);
+create index if not exists idx_endereco_cidade_usuario on tb_endereco (cidade, usuario_id);
+-- Unicidade do e-mail sem diferenciar maiúsculas: o cadastro e a importação inserem direto e tratam a violação
+-- (ou o "on conflict (lower(email)) do nothing") como e-mail já cadastrado, sem consulta prévia.
+-- Em uma base com e-mails repetidos (só maiúsculas diferentes) o índice não é criado, para não impedir a subida:
+-- o IndiceEmailUnicoVerificador avisa no log e db/migracao/emails-duplicados.sql lista e remove as repetições.
+-- A busca por repetições percorre a tabela inteira, então só roda enquanto o índice ainda não existe.
+-- Bloco entre aspas simples (com as aspas internas dobradas) para o ';' interno não separar o comando
+do '
+begin
+    if exists (select 1 from pg_indexes
+               where tablename = ''tb_usuario'' and indexname = ''uk_usuario_email_lower'') then
+        return;
+    end if;
+    if exists (select 1 from tb_usuario group by lower(email) having count(*) > 1) then
+        raise warning ''uk_usuario_email_lower não criado: há e-mails repetidos, veja db/migracao/emails-duplicados.sql'';
+    else
+        create unique index if not exists uk_usuario_email_lower on tb_usuario (lower(email));
+    end if;
+end';
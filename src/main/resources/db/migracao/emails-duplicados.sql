@@ -0,0 +1,31 @@
+-- Migração manual para bases que já têm e-mails repetidos sem diferenciar maiúsculas (ex.: Ana@x.com e ana@x.com).
+-- Nesse caso db/indices.sql não cria uk_usuario_email_lower e a aplicação registra um erro no log ao subir.
+-- Não está em spring.sql.init.data-locations: rodar com psql, passo a passo, antes ou depois da nova versão subir.
+
+-- 1. Relatório: cada grupo repetido, com ids e e-mails na ordem de cadastro
+select lower(email)                  as email_normalizado,
+       count(*)                      as quantidade,
+       array_agg(id order by id)     as ids,
+       array_agg(email order by id)  as emails
+from tb_usuario
+group by lower(email)
+having count(*) > 1
+order by quantidade desc, email_normalizado;
+
+-- 2. Deduplicação: mantém o cadastro mais antigo (menor id) de cada grupo e apaga os demais com endereços e telefones.
+-- Revise o relatório antes: contas repetidas com dados diferentes podem precisar ser unificadas à mão
+begin;
+
+create temporary table usuarios_duplicados on commit drop as
+select id
+from (select id, row_number() over (partition by lower(email) order by id) as ordem from tb_usuario) u
+where ordem > 1;
+
+delete from tb_endereco where usuario_id in (select id from usuarios_duplicados);
+delete from tb_telefone where usuario_id in (select id from usuarios_duplicados);
+delete from tb_usuario where id in (select id from usuarios_duplicados);
+
+commit;
+
+-- 3. Índice: é criado pelo db/indices.sql na próxima inicialização, ou aqui, sem bloquear as escritas
+create unique index concurrently if not exists uk_usuario_email_lower on tb_usuario (lower(email));
@@ -0,0 +1,33 @@
+-- Ids gerados por sequência com otimizador pooled (allocationSize = 50): cada nextval reserva o bloco (valor - 49, valor].
+-- Roda a cada inicialização, depois do ddl-auto.
+-- Exceção: quando o nextval devolve o valor inicial (1), o Hibernate chama nextval de novo e usa de 1 até o segundo
+-- valor, que pode passar por cima de um bloco reservado no meio tempo pela importação (UsuarioImportacaoRepository).
+-- Por isso uma sequência ainda não usada tem o valor inicial consumido aqui, antes de qualquer inserção.
+create sequence if not exists tb_usuario_seq start with 1 increment by 50;
+create sequence if not exists tb_endereco_seq start with 1 increment by 50;
+create sequence if not exists tb_telefone_seq start with 1 increment by 50;
+
+-- Migração de bancos que já usavam IDENTITY (ou receberam ids de fora da sequência): avança a sequência para além
+-- do maior id existente. Só avança, e só com nextval: um setval calculado aqui poderia voltar a sequência se outra
+-- instância já em execução chamasse nextval entre a leitura e o setval. Com a sequência à frente dos ids, que é o
+-- caso de toda inicialização depois da primeira, o bloco não altera nada.
+-- Bloco entre aspas simples (com as aspas internas dobradas) para o ';' interno não separar o comando
+do '
+declare
+    tabela text;
+    sequencia regclass;
+    maximo bigint;
+begin
+    foreach tabela in array array[''tb_usuario'', ''tb_endereco'', ''tb_telefone''] loop
+        sequencia := (tabela || ''_seq'')::regclass;
+        if pg_sequence_last_value(sequencia) is null then
+            perform nextval(sequencia);
+        end if;
+        execute format(''select max(id) from %I'', tabela) into maximo;
+        if maximo > coalesce(pg_sequence_last_value(sequencia), 0) then
+            loop
+                exit when nextval(sequencia) >= maximo;
+            end loop;
+        end if;
+    end loop;
+end';
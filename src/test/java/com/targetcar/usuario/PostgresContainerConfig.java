@@ -0,0 +1,18 @@
+package com.targetcar.usuario;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+// Postgres em container para os testes que dependem do banco real (sequências, índices em lower(email), SQL nativo).
+// @ServiceConnection preenche spring.datasource.* com o endereço do container
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresContainerConfig {
+
+    @Bean
+    @ServiceConnection
+    public PostgreSQLContainer<?> postgres() {
+        return new PostgreSQLContainer<>("postgres:16-alpine");
+    }
+}
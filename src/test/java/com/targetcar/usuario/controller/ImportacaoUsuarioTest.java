@@ -0,0 +1,94 @@
+package com.targetcar.usuario.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.targetcar.usuario.PostgresContainerConfig;
+import com.targetcar.usuario.business.dto.PaginaUsuariosDTO;
+import com.targetcar.usuario.business.dto.ResultadoImportacaoDTO;
+import com.targetcar.usuario.business.dto.ResultadoImportacaoDTO.StatusImportacao;
+import com.targetcar.usuario.business.dto.UsuarioListagemDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Importação em um banco vazio: os ids reservados pela importação (UsuarioImportacaoRepository) e os do Hibernate
+// vêm da mesma sequência e não podem ser negativos nem se sobrepor; todos aparecem na listagem por keyset
+@SpringBootTest(properties = {
+        "usuario.importacao.tamanho-lote=50",
+        "seguranca.administradores=admin@teste.com"
+})
+@AutoConfigureMockMvc
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class ImportacaoUsuarioTest {
+
+    private static final int QUANTIDADE = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @WithMockUser("admin@teste.com")
+    void importacaoEmBancoVazioGeraIdsPositivosQueAparecemNaListagem() throws Exception {
+        String corpo = IntStream.range(0, QUANTIDADE)
+                .mapToObj(i -> "{\"nome\": \"Importado " + i + "\", \"email\": \"importado-" + i + "@teste.com\", " +
+                        "\"senha\": \"senha\", \"telefones\": [{\"ddd\": \"11\", \"numero\": \"99999000" + i + "\"}]}")
+                .collect(Collectors.joining("\n"));
+
+        String resposta = mockMvc.perform(post("/usuario/importacao")
+                        .contentType("application/x-ndjson")
+                        .content(corpo))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        for (String linha : resposta.split("\n")) {
+            ResultadoImportacaoDTO resultado = objectMapper.readValue(linha, ResultadoImportacaoDTO.class);
+            assertEquals(StatusImportacao.CRIADO, resultado.getStatus(), linha);
+        }
+
+        // Cadastro pelo Hibernate depois da importação: o bloco dele não pode cruzar com os da importação
+        mockMvc.perform(post("/usuario")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\": \"Cadastrado\", \"email\": \"cadastrado@teste.com\", \"senha\": \"senha\"}"))
+                .andExpect(status().isOk());
+
+        Map<String, Long> idsPorEmail = new HashMap<>();
+        Long apos = 0L;
+        while (apos != null) {
+            String pagina = mockMvc.perform(get("/usuario/lista")
+                            .param("apos", String.valueOf(apos))
+                            .param("tamanho", "50"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            PaginaUsuariosDTO dto = objectMapper.readValue(pagina, PaginaUsuariosDTO.class);
+            for (UsuarioListagemDTO usuario : dto.getUsuarios()) {
+                assertTrue(usuario.getId() > 0, "id não positivo: " + usuario.getId());
+                idsPorEmail.put(usuario.getEmail(), usuario.getId());
+            }
+            apos = dto.getProximo();
+        }
+
+        assertEquals(QUANTIDADE + 1, idsPorEmail.size());
+        assertEquals(QUANTIDADE + 1, idsPorEmail.values().stream().distinct().count());
+        assertTrue(idsPorEmail.containsKey("cadastrado@teste.com"));
+        IntStream.range(0, QUANTIDADE).forEach(i ->
+                assertTrue(idsPorEmail.containsKey("importado-" + i + "@teste.com"), "importado-" + i + " fora da listagem"));
+    }
+}
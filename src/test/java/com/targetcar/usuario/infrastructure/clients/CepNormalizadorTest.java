@@ -0,0 +1,63 @@
+package com.targetcar.usuario.infrastructure.clients;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CepNormalizadorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "01310100",
+            "01310-100",
+            " 01310 - 100 ",
+            "0 1 3 1 0 1 0 0",
+            "-01310100-",
+            "01-31-01-00"
+    })
+    void aceitaOitoDigitosComEspacosEHifens(String cep) {
+        assertEquals(1310100, CepNormalizador.paraChave(cep));
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {
+            " ",
+            "-",
+            "0131010",             // 7 dígitos
+            "013101000",           // 9 dígitos
+            "01310-10",
+            "01310-1000",
+            "01310.100",           // separador diferente de espaço e hífen
+            "01310/100",
+            "01310_100",
+            "01310a100",
+            "01310100\t",
+            "٠١٣١٠١٠٠",            // dígitos árabes
+            "０１３１０１００",      // dígitos de largura total
+            "01310１00",            // um único dígito fora do ASCII
+            "+1310100",
+            "-1310100"
+    })
+    void rejeitaOQueNaoSaoOitoDigitosAscii(String cep) {
+        assertEquals(CepNormalizador.INVALIDO, CepNormalizador.paraChave(cep));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"00000000", "99999999", "00000-001", "10000-000"})
+    void limitesDaFaixa(String cep) {
+        int chave = CepNormalizador.paraChave(cep);
+        assertEquals(cep.replace("-", ""), CepNormalizador.paraTexto(chave));
+    }
+
+    @Test
+    void textoEFormatadoMantemZerosAEsquerda() {
+        int chave = CepNormalizador.paraChave("01310-100");
+        assertEquals("01310100", CepNormalizador.paraTexto(chave));
+        assertEquals("01310-100", CepNormalizador.formatado(chave));
+        assertEquals("00000-001", CepNormalizador.formatado(1));
+    }
+}
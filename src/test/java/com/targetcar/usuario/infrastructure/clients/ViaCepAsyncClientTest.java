@@ -0,0 +1,169 @@
+package com.targetcar.usuario.infrastructure.clients;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.targetcar.usuario.business.ImportacaoUsuarioService;
+import com.targetcar.usuario.business.UsuarioService;
+import com.targetcar.usuario.business.ViaCepService;
+import com.targetcar.usuario.controller.GlobalExceptionHandler;
+import com.targetcar.usuario.controller.UsuarioController;
+import com.targetcar.usuario.infrastructure.exceptions.ServiceUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Cliente assíncrono contra um stub lento do ViaCEP: quem chama recebe o futuro na hora, no máximo
+// as permissões do bulkhead vão ao stub por vez e, com max-pendentes também ocupado, a consulta falha com 503
+class ViaCepAsyncClientTest {
+
+    private static final String CORPO = """
+            {"cep": "01310-100", "logradouro": "Avenida Paulista", "localidade": "São Paulo", "uf": "SP"}
+            """;
+    private static final int ATRASO_MS = 300;
+    private static final int MAX_CONCORRENTES = 2;
+    private static final int MAX_PENDENTES = 3;
+
+    @RegisterExtension
+    static WireMockExtension viaCep = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    private ExecutorService executor;
+    private Bulkhead bulkhead;
+    private ViaCepAsyncClient cliente;
+
+    @BeforeEach
+    void setUp() {
+        viaCep.stubFor(get(urlPathMatching("/ws/.*")).willReturn(okJson(CORPO).withFixedDelay(ATRASO_MS)));
+        executor = Executors.newCachedThreadPool();
+        bulkhead = Bulkhead.of("via-cep-teste", BulkheadConfig.custom()
+                .maxConcurrentCalls(MAX_CONCORRENTES)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        cliente = new ViaCepAsyncClient(new ObjectMapper(), CircuitBreaker.ofDefaults("via-cep-teste"), bulkhead,
+                new SimpleMeterRegistry(), executor, viaCep.baseUrl(), 1000, 2000, MAX_PENDENTES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void consultasNaoPrendemAThreadQueChamaERespeitamOLimite() throws Exception {
+        long inicio = System.nanoTime();
+        List<CompletableFuture<ViaCepDTO>> consultas = ocuparTodasAsVagas();
+        long disparo = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+
+        assertTrue(disparo < ATRASO_MS / 2, "disparar as consultas levou " + disparo + " ms");
+        assertTrue(consultas.stream().noneMatch(CompletableFuture::isDone));
+
+        for (CompletableFuture<ViaCepDTO> consulta : consultas) {
+            assertEquals("Avenida Paulista", consulta.get().getLogradouro());
+        }
+        // 5 consultas com 2 por vez: três rodadas de ATRASO_MS
+        long total = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+        assertTrue(total >= 3 * ATRASO_MS - 50, "com no máximo 2 simultâneas o lote levaria 3 rodadas; levou " + total + " ms");
+        assertEquals(MAX_CONCORRENTES + MAX_PENDENTES, viaCep.getAllServeEvents().size());
+    }
+
+    @Test
+    void filaCheiaFalhaNaHoraSemChamarOViaCep() throws Exception {
+        List<CompletableFuture<ViaCepDTO>> consultas = ocuparTodasAsVagas();
+
+        CompletableFuture<ViaCepDTO> excedente = cliente.buscaDadosDeEndereco("01310100");
+
+        assertTrue(excedente.isCompletedExceptionally());
+        ExecutionException erro = assertThrows(ExecutionException.class, excedente::get);
+        assertInstanceOf(ServiceUnavailableException.class, erro.getCause());
+        for (CompletableFuture<ViaCepDTO> consulta : consultas) {
+            assertEquals("Avenida Paulista", consulta.get().getLogradouro());
+        }
+        assertEquals(MAX_CONCORRENTES + MAX_PENDENTES, viaCep.getAllServeEvents().size());
+    }
+
+    // Permissões presas pelo cliente síncrono (aqui, tomadas direto do bulkhead) seguram as consultas assíncronas,
+    // que seguem assim que uma delas volta
+    @Test
+    void permissoesDoClienteSincronoContamParaOAssincrono() throws Exception {
+        for (int i = 0; i < MAX_CONCORRENTES; i++) {
+            assertTrue(bulkhead.tryAcquirePermission());
+        }
+
+        CompletableFuture<ViaCepDTO> consulta = cliente.buscaDadosDeEndereco("01310100");
+        Thread.sleep(ATRASO_MS);
+        assertFalse(consulta.isDone());
+        assertEquals(0, viaCep.getAllServeEvents().size());
+
+        bulkhead.onComplete();
+
+        assertEquals("Avenida Paulista", consulta.get().getLogradouro());
+        assertEquals(1, viaCep.getAllServeEvents().size());
+    }
+
+    @Test
+    void filaCheiaRespondeServiceUnavailableNoEndpoint() throws Exception {
+        ViaCepService viaCepService = mock(ViaCepService.class);
+        when(viaCepService.buscarDadosEnderecoAsync(anyString()))
+                .thenAnswer(chamada -> cliente.buscaDadosDeEndereco(chamada.getArgument(0)));
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(new UsuarioController(mock(UsuarioService.class), viaCepService,
+                        mock(ImportacaoUsuarioService.class)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        List<CompletableFuture<ViaCepDTO>> consultas = ocuparTodasAsVagas();
+
+        MvcResult resultado = mockMvc.perform(MockMvcRequestBuilders.get("/usuario/endereco/01310100"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        assertFalse(consultas.stream().anyMatch(CompletableFuture::isCompletedExceptionally));
+    }
+
+    // MAX_CONCORRENTES consultas em andamento e MAX_PENDENTES na fila
+    private List<CompletableFuture<ViaCepDTO>> ocuparTodasAsVagas() {
+        List<CompletableFuture<ViaCepDTO>> consultas = new ArrayList<>();
+        for (int i = 0; i < MAX_CONCORRENTES + MAX_PENDENTES; i++) {
+            consultas.add(cliente.buscaDadosDeEndereco("01310100"));
+        }
+        return consultas;
+    }
+}
@@ -0,0 +1,202 @@
+package com.targetcar.usuario.infrastructure.clients;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.targetcar.usuario.infrastructure.config.ExecutorConfig;
+import com.targetcar.usuario.infrastructure.config.ViaCepConfig;
+import com.targetcar.usuario.infrastructure.exceptions.ServiceUnavailableException;
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cliente Feign real contra um stub do ViaCEP (WireMock) com atraso e falhas injetados: timeout de leitura,
+// bulkhead, circuit breaker e hedge precisam disparar como configurado em application.properties
+@SpringBootTest(classes = ViaCepResilienteClientTest.Contexto.class,
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "viacep.read-timeout=500",
+                "viacep.bulkhead.max-concorrentes=2",
+                "viacep.circuit-breaker.janela=4",
+                "viacep.circuit-breaker.tempo-aberto=PT1M"
+        })
+class ViaCepResilienteClientTest {
+
+    private static final String CORPO = """
+            {"cep": "01310-100", "logradouro": "Avenida Paulista", "localidade": "São Paulo", "uf": "SP"}
+            """;
+
+    @RegisterExtension
+    static WireMockExtension viaCep = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void propriedades(DynamicPropertyRegistry registry) {
+        registry.add("viacep.url", viaCep::baseUrl);
+    }
+
+    @Configuration
+    @EnableFeignClients(clients = ViaCepClient.class)
+    @ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            FeignAutoConfiguration.class})
+    @Import({ViaCepConfig.class, ExecutorConfig.class, ViaCepResilienteClient.class})
+    static class Contexto {
+    }
+
+    @Autowired
+    private ViaCepResilienteClient cliente;
+    @Autowired
+    private ViaCepClient viaCepClient;
+    @Autowired
+    private CircuitBreaker viaCepCircuitBreaker;
+    @Autowired
+    @Qualifier("executorIo")
+    private ExecutorService executorIo;
+
+    @BeforeEach
+    void setUp() {
+        viaCepCircuitBreaker.reset();
+    }
+
+    @Test
+    void respostaRapidaPassaPelasProtecoes() {
+        viaCep.stubFor(get(urlPathMatching("/ws/.*")).willReturn(okJson(CORPO)));
+
+        assertEquals("Avenida Paulista", cliente.buscaDadosDeEndereco("01310100").getLogradouro());
+    }
+
+    @Test
+    void respostaAlemDoTimeoutDeLeituraViraServicoIndisponivel() {
+        viaCep.stubFor(get(urlPathMatching("/ws/.*")).willReturn(okJson(CORPO).withFixedDelay(2000)));
+
+        long inicio = System.nanoTime();
+        ServiceUnavailableException erro = assertThrows(ServiceUnavailableException.class,
+                () -> cliente.buscaDadosDeEndereco("01310100"));
+
+        assertInstanceOf(RetryableException.class, erro.getCause());
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toMillis() < 1500,
+                "a chamada deveria desistir no read-timeout de 500 ms");
+    }
+
+    @Test
+    void bulkheadRecusaChamadasAlemDoLimiteSemEsperar() throws Exception {
+        viaCep.stubFor(get(urlPathMatching("/ws/.*")).willReturn(okJson(CORPO).withFixedDelay(400)));
+
+        List<CompletableFuture<ViaCepDTO>> emAndamento = List.of(
+                CompletableFuture.supplyAsync(() -> cliente.buscaDadosDeEndereco("01310100"), executorIo),
+                CompletableFuture.supplyAsync(() -> cliente.buscaDadosDeEndereco("01310100"), executorIo));
+        aguardarRequisicoes(2);
+
+        long inicio = System.nanoTime();
+        ServiceUnavailableException erro = assertThrows(ServiceUnavailableException.class,
+                () -> cliente.buscaDadosDeEndereco("01310100"));
+
+        assertInstanceOf(BulkheadFullException.class, erro.getCause());
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toMillis() < 200,
+                "com espera-maxima PT0S a recusa deveria ser imediata");
+        for (CompletableFuture<ViaCepDTO> chamada : emAndamento) {
+            assertEquals("Avenida Paulista", chamada.get().getLogradouro());
+        }
+        assertEquals(2, viaCep.getAllServeEvents().size());
+    }
+
+    @Test
+    void circuitoAbreDepoisDaJanelaDeFalhasEDeixaDeChamarOViaCep() {
+        viaCep.stubFor(get(urlPathMatching("/ws/.*")).willReturn(aResponse().withStatus(500)));
+
+        for (int i = 0; i < 4; i++) {
+            ServiceUnavailableException erro = assertThrows(ServiceUnavailableException.class,
+                    () -> cliente.buscaDadosDeEndereco("01310100"));
+            assertInstanceOf(FeignException.FeignServerException.class, erro.getCause());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, viaCepCircuitBreaker.getState());
+
+        ServiceUnavailableException erro = assertThrows(ServiceUnavailableException.class,
+                () -> cliente.buscaDadosDeEndereco("01310100"));
+
+        assertInstanceOf(CallNotPermittedException.class, erro.getCause());
+        assertEquals(4, viaCep.getAllServeEvents().size());
+    }
+
+    @Test
+    void erro4xxNaoContaParaOCircuito() {
+        viaCep.stubFor(get(urlPathMatching("/ws/.*")).willReturn(aResponse().withStatus(400)));
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(FeignException.FeignClientException.class, () -> cliente.buscaDadosDeEndereco("01310100"));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, viaCepCircuitBreaker.getState());
+    }
+
+    // A primeira resposta demora 400 ms (abaixo do timeout); sem amostras de latência o hedge sai após
+    // o atraso mínimo de 50 ms e a segunda chamada, imediata, responde antes
+    @Test
+    void hedgeRespondeComASegundaChamadaQuandoAPrimeiraDemora() {
+        viaCep.stubFor(get(urlPathMatching("/ws/.*")).inScenario("hedge")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willSetStateTo("rapida")
+                .willReturn(okJson(CORPO).withFixedDelay(400)));
+        viaCep.stubFor(get(urlPathMatching("/ws/.*")).inScenario("hedge")
+                .whenScenarioStateIs("rapida")
+                .willReturn(okJson(CORPO)));
+        Bulkhead bulkhead = Bulkhead.of("via-cep-hedge", BulkheadConfig.custom()
+                .maxConcurrentCalls(10)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        ViaCepResilienteClient comHedge = new ViaCepResilienteClient(viaCepClient, viaCepCircuitBreaker, bulkhead,
+                executorIo, true, 0.95, Duration.ofMillis(50));
+
+        long inicio = System.nanoTime();
+        ViaCepDTO endereco = comHedge.buscaDadosDeEndereco("01310100");
+
+        assertEquals("Avenida Paulista", endereco.getLogradouro());
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toMillis() < 300,
+                "a resposta deveria vir da segunda chamada, sem esperar os 400 ms da primeira");
+        assertEquals(2, viaCep.getAllServeEvents().size());
+    }
+
+    private static void aguardarRequisicoes(int quantidade) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (viaCep.getAllServeEvents().size() < quantidade) {
+            if (System.nanoTime() > limite) {
+                throw new AssertionError("o stub não recebeu " + quantidade + " requisições");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
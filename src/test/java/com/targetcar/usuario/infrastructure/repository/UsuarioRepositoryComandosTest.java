@@ -0,0 +1,123 @@
+package com.targetcar.usuario.infrastructure.repository;
+
+import com.targetcar.usuario.PostgresContainerConfig;
+import com.targetcar.usuario.infrastructure.entity.Endereco;
+import com.targetcar.usuario.infrastructure.entity.Telefone;
+import com.targetcar.usuario.infrastructure.entity.Usuario;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Quantidade de comandos SQL do cadastro e das leituras de usuário, medida pelas estatísticas do Hibernate:
+// o número de comandos não pode crescer com a quantidade de endereços e telefones
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class UsuarioRepositoryComandosTest {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private EnderecoRepository enderecoRepository;
+    @Autowired
+    private TelefoneRepository telefoneRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Entidade com as duas coleções (atualização de dados): uma consulta por coleção, sem carga lazy depois
+    @Test
+    void carregaUsuarioComEnderecosETelefonesEmDuasConsultas() {
+        cadastrar("completo@teste.com", 3, 2);
+        entityManager.clear();
+        estatisticas.clear();
+
+        Usuario usuario = usuarioRepository.buscarCompletoPorEmail("Completo@Teste.com").orElseThrow();
+
+        assertEquals(3, usuario.getEnderecos().size());
+        assertEquals(2, usuario.getTelefones().size());
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+    }
+
+    // Consulta do usuário (GET /usuario): projeções, sem nenhuma entidade carregada
+    @Test
+    void consultaPorProjecoesEmTresConsultas() {
+        cadastrar("projecao@teste.com", 5, 4);
+        entityManager.clear();
+        estatisticas.clear();
+
+        UsuarioResumo usuario = usuarioRepository.findResumoByEmail("projecao@teste.com").orElseThrow();
+
+        assertEquals(5, enderecoRepository.findDTOByUsuarioId(usuario.getId()).size());
+        assertEquals(4, telefoneRepository.findDTOByUsuarioId(usuario.getId()).size());
+        assertEquals(3, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    // Cadastro (salvaUsuario grava a entidade convertida com saveAndFlush): com ids de sequência e batch JDBC,
+    // cada tabela recebe um único comando preparado qualquer que seja o número de linhas. Com IDENTITY eram
+    // 1 + N + M INSERTs e mais N + M UPDATEs de usuario_id, uma ida ao banco cada
+    @Test
+    void cadastroUsaOsMesmosComandosComUmOuDezEnderecosETelefones() {
+        // O otimizador pooled busca o primeiro bloco de ids nas primeiras inserções; os cadastros medidos
+        // ficam dentro de um bloco de 50 e não chamam nextval
+        cadastrar("aquecimento-1@teste.com", 2, 2);
+        cadastrar("aquecimento-2@teste.com", 2, 2);
+
+        estatisticas.clear();
+        cadastrar("um@teste.com", 1, 1);
+        long comandosUm = estatisticas.getPrepareStatementCount();
+
+        estatisticas.clear();
+        cadastrar("dez@teste.com", 10, 10);
+        long comandosDez = estatisticas.getPrepareStatementCount();
+
+        assertEquals(comandosUm, comandosDez, "comandos SQL com 1 endereço/1 telefone: " + comandosUm
+                + ", com 10 endereços/10 telefones: " + comandosDez);
+    }
+
+    private Usuario cadastrar(String email, int enderecos, int telefones) {
+        Usuario usuario = Usuario.builder()
+                .nome("Usuário de Teste")
+                .email(email)
+                .senha("{noop}senha")
+                .enderecos(IntStream.range(0, enderecos)
+                        .mapToObj(i -> Endereco.builder()
+                                .rua("Rua " + i)
+                                .numero((long) i)
+                                .cidade("São Paulo")
+                                .estado("SP")
+                                .cep("01310100")
+                                .build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .telefones(IntStream.range(0, telefones)
+                        .mapToObj(i -> Telefone.builder()
+                                .ddd("11")
+                                .numero("99999000" + i)
+                                .build())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .build();
+        return usuarioRepository.saveAndFlush(usuario);
+    }
+}